@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+/**
+ * Compares the allocation of the views of a board using the flyweight tables with
+ * creating a new {@link Position} and {@link Tile} for every cell, run it with the gc
+ * profiler to see the allocation rate of each one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlyweightBenchmark {
+
+  @Param({ "10x15", "50x50", "500x500" })
+  public String size;
+
+  private Matrix matrix;
+  private Tile[] tiles;
+
+  @Setup
+  public void setup() {
+    var dimensions = size.split("x");
+    var width = Integer.parseInt(dimensions[0]);
+    var height = Integer.parseInt(dimensions[1]);
+
+    matrix = new Matrix(width, height).shuffle(42L);
+    tiles = new Tile[width * height];
+    matrix.tiles();
+    matrix.positions();
+  }
+
+  @Benchmark
+  public Tile[] newTiles() {
+    var i = 0;
+    for (int x = 0; x < matrix.width(); x++) {
+      for (int y = 0; y < matrix.height(); y++) {
+        tiles[i++] = new Tile(new Position(x, y), Color.of(matrix.cell(x, y)));
+      }
+    }
+    return tiles;
+  }
+
+  @Benchmark
+  public ImmutableArray<Tile> tiles() {
+    return matrix.tiles();
+  }
+
+  @Benchmark
+  public ImmutableArray<Position> positions() {
+    return matrix.positions();
+  }
+
+  @Benchmark
+  public Position neighbors() {
+    var position = Position.of(5, 5);
+    for (int i = 0; i < 100; i++) {
+      position = position.up().right().down().left();
+    }
+    return position;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.tonivade.purefun.data.Sequence;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+
+  @Param({ "10x15", "50x50", "200x200", "1000x1000" })
+  public String size;
+
+  @Param({ "2", "4", "16" })
+  public int colors;
+
+  private Matrix matrix;
+  private Matrix withHoles;
+  private Matrix withEmptyColumns;
+  private Position click;
+  private long seed;
+
+  @Setup
+  public void setup() {
+    var dimensions = size.split("x");
+    var width = Integer.parseInt(dimensions[0]);
+    var height = Integer.parseInt(dimensions[1]);
+    var random = new Random(42);
+
+    matrix = new Matrix(width, height).shuffle(_ -> Color.values()[random.nextInt(colors)]);
+    withHoles = matrix.clean(matrix.positions().filter(_ -> random.nextInt(4) == 0));
+    withEmptyColumns = matrix.clean(matrix.positions().filter(p -> p.x() % 3 == 0));
+    click = largestGroup(matrix);
+  }
+
+  @Benchmark
+  public Matrix shuffle() {
+    return matrix.shuffle(seed++, colors);
+  }
+
+  @Benchmark
+  public Sequence<Position> adjacent() {
+    return matrix.adjacent(click);
+  }
+
+  @Benchmark
+  public Matrix click() {
+    return Matrix.clickS(click).runS(matrix);
+  }
+
+  @Benchmark
+  public Matrix fall() {
+    return withHoles.fall();
+  }
+
+  @Benchmark
+  public Matrix shift() {
+    return withEmptyColumns.shift();
+  }
+
+  @Benchmark
+  public boolean gameOver() {
+    return matrix.gameOver();
+  }
+
+  @Benchmark
+  public String print() {
+    return matrix.toString();
+  }
+
+  private static Position largestGroup(Matrix matrix) {
+    var best = new Position(0, 0);
+    var bestSize = 0;
+    for (int x = 0; x < matrix.width(); x += Math.max(1, matrix.width() / 10)) {
+      for (int y = 0; y < matrix.height(); y += Math.max(1, matrix.height() / 10)) {
+        var position = new Position(x, y);
+        var size = matrix.adjacent(position).size();
+        if (size > bestSize) {
+          best = position;
+          bestSize = size;
+        }
+      }
+    }
+    return best;
+  }
+}
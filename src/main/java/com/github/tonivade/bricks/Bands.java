@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Splits the columns, or the rows, of a board in bands processed in parallel in the
+ * common fork-join pool, and merges the results of adjacent bands in order.
+ *
+ * <p>Bands are never smaller than {@link #GRAIN} cells, so small boards are processed
+ * in a single band in the calling thread, as if there were no bands at all.</p>
+ */
+final class Bands {
+
+  static final int GRAIN = 1 << 15;
+
+  @FunctionalInterface
+  interface Band<T> {
+    T apply(int from, int to);
+  }
+
+  private Bands() {}
+
+  /**
+   * Returns the number of lines of {@code cells} cells that a band should have, so
+   * there are enough bands for every thread of the pool but no band is too small.
+   */
+  static int lines(int length, int cells) {
+    var parallelism = ForkJoinPool.getCommonPoolParallelism();
+    if (parallelism < 2 || (long) length * cells < 2L * GRAIN) {
+      return length;
+    }
+    var lines = Math.max(1, GRAIN / cells);
+    return Math.max(lines, length / (parallelism * 4));
+  }
+
+  /**
+   * Applies the band to the lines from 0 to {@code length}, each line with
+   * {@code cells} cells, and merges the results, always the left one with the right one.
+   */
+  static <T> T reduce(int length, int cells, Band<T> band, BinaryOperator<T> merge) {
+    checkNonNull(band);
+    checkNonNull(merge);
+    var lines = lines(length, cells);
+    if (lines >= length) {
+      return band.apply(0, length);
+    }
+    return ForkJoinPool.commonPool().invoke(new Task<>(0, length, lines, band, merge));
+  }
+
+  /**
+   * Returns the bounds of the bands, as {@link #reduce} would split them, so several
+   * passes can use the same bands.
+   */
+  static int[] bounds(int length, int cells) {
+    var lines = lines(length, cells);
+    var count = (length + lines - 1) / lines;
+    var bounds = new int[count + 1];
+    for (int i = 0; i < count; i++) {
+      bounds[i] = i * lines;
+    }
+    bounds[count] = length;
+    return bounds;
+  }
+
+  /**
+   * Applies the band to every band of the given bounds, in parallel if there is more
+   * than one.
+   */
+  static void forEach(int[] bounds, Band<?> band) {
+    checkNonNull(band);
+    if (bounds.length <= 2) {
+      band.apply(0, bounds[bounds.length - 1]);
+      return;
+    }
+    ForkJoinPool.commonPool().invoke(new Task<Object>(0, bounds.length - 1, 1,
+        (from, to) -> {
+          for (int i = from; i < to; i++) {
+            band.apply(bounds[i], bounds[i + 1]);
+          }
+          return null;
+        },
+        (_, _) -> null));
+  }
+
+  private static final class Task<T> extends RecursiveTask<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final int lines;
+    private final transient Band<T> band;
+    private final transient BinaryOperator<T> merge;
+
+    Task(int from, int to, int lines, Band<T> band, BinaryOperator<T> merge) {
+      this.from = from;
+      this.to = to;
+      this.lines = lines;
+      this.band = band;
+      this.merge = merge;
+    }
+
+    @Override
+    protected T compute() {
+      if (to - from <= lines) {
+        return band.apply(from, to);
+      }
+      var middle = from + ((to - from) / lines / 2) * lines;
+      if (middle == from) {
+        middle = from + lines;
+      }
+      var left = new Task<>(from, middle, lines, band, merge);
+      var right = new Task<>(middle, to, lines, band, merge);
+      left.fork();
+      var rightResult = right.compute();
+      return merge.apply(left.join(), rightResult);
+    }
+  }
+}
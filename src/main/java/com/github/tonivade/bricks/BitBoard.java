@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+/**
+ * Bitboard view of the packed cells of a {@link Matrix}.
+ *
+ * <p>Keeps one bit plane per color, with the same column-major indexes as the
+ * matrix, so moving one cell up or down is a shift of one bit and moving one
+ * column left or right is a shift of {@code height} bits. Plane words are built
+ * lazily, only the words reached by a flood fill are ever computed.</p>
+ */
+final class BitBoard {
+
+  private final byte[] cells;
+  private final int height;
+  private final int words;
+  private final long[][] planes;
+  private final boolean[][] loaded;
+
+  private long allocated;
+
+  BitBoard(byte[] cells, int height) {
+    this.cells = checkNonNull(cells);
+    this.height = checkPositive(height);
+    this.words = (cells.length + 63) >>> 6;
+    this.planes = new long[Color.values().length][];
+    this.loaded = new boolean[planes.length][];
+    this.allocated = 2 * Metrics.array(planes.length, Integer.BYTES);
+  }
+
+  /**
+   * Returns the estimated bytes of the arrays allocated so far, the planes and the
+   * regions and frontiers of every flood fill, for {@link Metrics}.
+   */
+  long allocated() {
+    return allocated;
+  }
+
+  /**
+   * Returns the bits of the region of cells of the same color connected to the
+   * given cell, or no bits at all if the cell is empty. The region is expanded
+   * with shift-and-mask steps restricted to the words around the last frontier,
+   * so it needs no recursion and no per cell allocation.
+   */
+  long[] flood(int start) {
+    var region = new long[words];
+    allocated += Metrics.array(words, Long.BYTES);
+    var color = cells[start];
+    if (color == Matrix.EMPTY) {
+      return region;
+    }
+
+    var frontier = new long[words];
+    var next = new long[words];
+    allocated += 2 * Metrics.array(words, Long.BYTES);
+    var reach = (height >>> 6) + 1;
+    var lo = start >>> 6;
+    var hi = lo;
+    region[lo] = frontier[lo] = 1L << start;
+
+    while (lo <= hi) {
+      var from = Math.max(0, lo - reach);
+      var to = Math.min(words - 1, hi + reach);
+      var nextLo = Integer.MAX_VALUE;
+      var nextHi = -1;
+      for (int w = from; w <= to; w++) {
+        var plane = plane(color, w);
+        if (plane == 0) {
+          continue;
+        }
+        var up = shiftUp(frontier, w, 1) & ~row(w, 0);
+        var down = shiftDown(frontier, w, 1) & ~row(w, height - 1);
+        var sides = shiftUp(frontier, w, height) | shiftDown(frontier, w, height);
+        var bits = (up | down | sides) & plane & ~region[w];
+        if (bits != 0) {
+          next[w] = bits;
+          region[w] |= bits;
+          nextLo = Math.min(nextLo, w);
+          nextHi = w;
+        }
+      }
+      for (int w = lo; w <= hi; w++) {
+        frontier[w] = 0;
+      }
+      var swap = frontier;
+      frontier = next;
+      next = swap;
+      lo = nextLo;
+      hi = nextHi;
+    }
+    return region;
+  }
+
+  static int count(long[] bits) {
+    var count = 0;
+    for (var word : bits) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  private long plane(byte color, int w) {
+    if (planes[color] == null) {
+      planes[color] = new long[words];
+      loaded[color] = new boolean[words];
+      allocated += Metrics.array(words, Long.BYTES) + Metrics.array(words, Byte.BYTES);
+    }
+    if (!loaded[color][w]) {
+      var base = w << 6;
+      var end = Math.min(base + 64, cells.length);
+      var bits = 0L;
+      for (int i = base; i < end; i++) {
+        if (cells[i] == color) {
+          bits |= 1L << (i - base);
+        }
+      }
+      planes[color][w] = bits;
+      loaded[color][w] = true;
+    }
+    return planes[color][w];
+  }
+
+  private long row(int w, int y) {
+    var base = (long) w << 6;
+    var bits = 0L;
+    for (long i = base + Math.floorMod(y - base, height); i < base + 64; i += height) {
+      bits |= 1L << (i - base);
+    }
+    return bits;
+  }
+
+  private static long shiftUp(long[] bits, int w, int shift) {
+    var q = shift >>> 6;
+    var r = shift & 63;
+    if (r == 0) {
+      return word(bits, w - q);
+    }
+    return (word(bits, w - q) << r) | (word(bits, w - q - 1) >>> (64 - r));
+  }
+
+  private static long shiftDown(long[] bits, int w, int shift) {
+    var q = shift >>> 6;
+    var r = shift & 63;
+    if (r == 0) {
+      return word(bits, w + q);
+    }
+    return (word(bits, w + q) >>> r) | (word(bits, w + q + 1) << (64 - r));
+  }
+
+  private static long word(long[] bits, int w) {
+    return w >= 0 && w < bits.length ? bits[w] : 0L;
+  }
+}
@@ -4,99 +4,307 @@
  */
 package com.github.tonivade.bricks;
 
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
 import static com.github.tonivade.purefun.core.Unit.unit;
 
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.SplittableRandom;
 
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.core.Producer;
+import com.github.tonivade.purefun.core.Tuple;
+import com.github.tonivade.purefun.core.Tuple2;
 import com.github.tonivade.purefun.core.Unit;
 import com.github.tonivade.purefun.monad.IO;
 import com.github.tonivade.purefun.monad.IOOf;
 import com.github.tonivade.purefun.transformer.StateT;
+import com.github.tonivade.purefun.type.Option;
 import com.github.tonivade.purefun.type.Try;
 import com.github.tonivade.purefun.typeclasses.Console;
 import com.github.tonivade.purefun.typeclasses.Instances;
 
+/**
+ * Console version of the game.
+ *
+ * <p>It can be played interactively, or in batch mode, replaying the same input a
+ * player would type, read from a file or the standard input, against the deals
+ * generated from a seed. In batch mode nothing is printed until the input ends,
+ * there is no pause after each move, and a summary of the games is printed.</p>
+ *
+ * <p>Entering {@code u} or {@code r} instead of the X coordinate undoes or redoes the
+ * last move, and entering {@code h} prints the position suggested to click next.</p>
+ *
+ * <p>The size of the board and the number of colors can be changed with
+ * {@code --width}, {@code --height} and {@code --colors}, and the memory of the undo
+ * history with {@code --history}, see {@link Options}.</p>
+ *
+ * <pre>
+ * Bricks [--width &lt;n&gt;] [--height &lt;n&gt;] [--colors &lt;n&gt;]
+ * Bricks [--width &lt;n&gt;] [--height &lt;n&gt;] [--colors &lt;n&gt;] --batch &lt;seed&gt; [file]
+ * </pre>
+ */
 public class Bricks {
 
-  private static final Console<IO<?>> console = Instances.console();
+  /**
+   * Steps of the game. Each step runs a fragment of the program built only once and
+   * returns the next step, and the loop runs the next step in a flatMap of the
+   * previous one, so it does not grow with the number of moves. A turn only builds
+   * the position that was read and the message printed, the rest of the turn is
+   * also built once.
+   *
+   * <p>A turn that follows a click that changed the board is {@code MOVED} instead of
+   * {@code TURN}, and the game is only over after such a click, so the summary counts
+   * the clicks played and not the boards changed by undo or redo.</p>
+   */
+  private enum Phase {
+    START, TURN, MOVED, AGAIN, QUIT
+  }
+
+  public record Summary(int games, int wins, long moves, long tiles, long score, long nanos) {
+
+    static final Summary EMPTY = new Summary(0, 0, 0, 0, 0, 0);
+
+    Summary started() {
+      return new Summary(games + 1, wins, moves, tiles, score, nanos);
+    }
+
+    Summary moved() {
+      return new Summary(games, wins, moves + 1, tiles, score, nanos);
+    }
+
+    Summary ended(Matrix matrix, long points) {
+      return new Summary(games, wins + (matrix.isEmpty() ? 1 : 0), moves, tiles + matrix.size(), score + points, nanos);
+    }
+
+    Summary elapsed(long nanos) {
+      return new Summary(games, wins, moves, tiles, score, nanos);
+    }
 
-  public static void main(String... args) {
-    mainLoop().run(new Matrix(10, 15)).fix(IOOf::toIO).unsafeRunSync();
+    @Override
+    public String toString() {
+      return String.format("%d games, %d wins, %d moves, %d tiles left, %d points, %d ms",
+          games, wins, moves, tiles, score, Duration.ofNanos(nanos).toMillis());
+    }
   }
 
-  private static final StateT<IO<?>, Matrix, Unit> mainLoop() {
-    return print("Let's play a game")
-      .andThen(shuffle)
-      .andThen(play())
-      .andThen(print("Do you want to play again?"))
-      .andThen(read)
-      .flatMap(s -> s.equals("n") ? quit : mainLoop());
+  private final IO<String> readln;
+  private final Function1<String, IO<Unit>> output;
+  private final Producer<Matrix> deals;
+  private final boolean display;
+  private final Screen screen = new Screen();
+  private final History history;
+  private final StateT<IO<?>, Matrix, Unit> silent = StateT.pure(unit());
+
+  private final StateT<IO<?>, Matrix, String> read;
+  private final StateT<IO<?>, Matrix, Try<Integer>> readY;
+  private final StateT<IO<?>, Matrix, Unit> sleep;
+  private final StateT<IO<?>, Matrix, Phase> pause;
+  private final StateT<IO<?>, Matrix, Phase> played;
+  private final StateT<IO<?>, Matrix, Phase> moved;
+  private final StateT<IO<?>, Matrix, Unit> shuffle;
+  private final StateT<IO<?>, Matrix, Unit> printMatrix;
+  private final StateT<IO<?>, Matrix, Phase> next;
+  private final StateT<IO<?>, Matrix, Phase> finish;
+  private final StateT<IO<?>, Matrix, Phase> start;
+  private final StateT<IO<?>, Matrix, Phase> turn;
+  private final StateT<IO<?>, Matrix, Phase> again;
+  private final StateT<IO<?>, Matrix, Phase> undo;
+  private final StateT<IO<?>, Matrix, Phase> redo;
+  private final StateT<IO<?>, Matrix, Phase> hint;
+  private final StateT<IO<?>, Matrix, Phase> quit = StateT.pure(Phase.QUIT);
+
+  Bricks(IO<String> readln, Function1<String, IO<Unit>> output, IO<Unit> sleep, Producer<Matrix> deals,
+      History history, boolean display) {
+    this.readln = checkNonNull(readln);
+    this.history = checkNonNull(history);
+    this.output = checkNonNull(output);
+    this.deals = checkNonNull(deals);
+    this.display = display;
+    this.read = StateT.lift(this.readln);
+    this.readY =
+        print("Please entry Y").andThen(read.map(Bricks::parseInt));
+    this.sleep = StateT.lift(checkNonNull(sleep));
+    this.shuffle = StateT.modify(_ -> history.reset(this.deals.get()));
+    this.printMatrix = display ? printMatrix() : silent;
+    this.next = printMatrix.map(_ -> Phase.TURN);
+    this.finish = exit().map(_ -> Phase.AGAIN);
+    this.pause = this.sleep.andThen(next);
+    this.moved = printMatrix.map(_ -> Phase.MOVED);
+    this.played =
+        this.sleep
+          .andThen(StateT.<IO<?>, Matrix, Boolean>inspect(Matrix::gameOver))
+          .flatMap(end -> end ? finish : moved);
+    this.start =
+        print("Let's play a game")
+          .andThen(shuffle)
+          .andThen(next);
+    this.turn =
+        print("Please entry X")
+          .andThen(read)
+          .flatMap(this::command);
+    this.again =
+        print("Do you want to play again?")
+          .andThen(read)
+          .map(s -> s == null || s.equals("n") ? Phase.QUIT : Phase.START);
+    this.undo =
+        StateT.<IO<?>, Matrix>modify(m -> history.undo().getOrElse(m))
+          .andThen(next);
+    this.redo =
+        StateT.<IO<?>, Matrix>modify(m -> history.redo().getOrElse(m))
+          .andThen(next);
+    this.hint =
+        StateT.<IO<?>, Matrix, Option<Position>>inspect(m -> m.hint(Hints.Heuristic.of(m)))
+          .flatMap(pos -> pos.fold(
+              () -> print("No hint"),
+              p -> print("Try X=%d Y=%d", p.x(), p.y())))
+          .map(_ -> Phase.TURN);
   }
 
-  private static final StateT<IO<?>, Matrix, Unit> play() {
-    return printMatrix
-      .andThen(readPosition)
-      .flatMap(pos -> pos.fold(Bricks::error, Bricks::click))
-      .andThen(gameOver)
-      .flatMap(end -> end ? exit : play());
+  public static void main(String... args) throws IOException {
+    Metrics.install();
+    var options = Options.parse(args);
+    var rest = options.arguments();
+    if (!rest.isEmpty() && rest.get(0).equals("--batch")) {
+      var seed = rest.size() > 1 ? Long.parseLong(rest.get(1)) : System.nanoTime();
+      try (var input = rest.size() > 2
+          ? Files.newBufferedReader(Path.of(rest.get(2))) : new BufferedReader(new InputStreamReader(System.in))) {
+        System.out.println(batch(input, seed, options).loop(options.empty()).unsafeRunSync());
+      }
+    } else {
+      interactive(options).loop(options.empty()).unsafeRunSync();
+    }
   }
 
-  private static final StateT<IO<?>, Matrix, String> read = StateT.lift(console.readln());
+  static Bricks interactive() {
+    return interactive(Options.DEFAULT);
+  }
 
-  private static final StateT<IO<?>, Matrix, Try<Integer>> readInt = read.map(Bricks::parseInt);
+  static Bricks interactive(Options options) {
+    Console<IO<?>> console = Instances.console();
+    var pool = options.pool();
+    return new Bricks(
+        console.readln().fix(IOOf::toIO),
+        text -> IO.exec(() -> System.out.print(text)),
+        IO.sleep(Duration.ofSeconds(1)),
+        () -> pool.take().matrix(),
+        options.history(options.empty()),
+        true);
+  }
 
-  private static final StateT<IO<?>, Matrix, Try<Position>> readPosition =
-      StateT.map2(
-          print("Please entry X").andThen(readInt),
-          print("Please entry Y").andThen(readInt),
-          (x, y) -> Try.map2(x, y, Position::new));
+  static Bricks batch(BufferedReader input, long seed) {
+    return batch(input, seed, Options.DEFAULT);
+  }
 
-  private static Try<Integer> parseInt(String string) {
-    return Try.of(() -> Integer.parseInt(string));
+  static Bricks batch(BufferedReader input, long seed, Options options) {
+    checkNonNull(input);
+    var deals = options.deals();
+    var random = new SplittableRandom(seed);
+    return new Bricks(
+        IO.task(input::readLine),
+        _ -> IO.unit(),
+        IO.unit(),
+        () -> deals.generate(random).matrix(),
+        options.history(options.empty()),
+        false);
   }
 
-  private static final StateT<IO<?>, Matrix, Unit> print(String text, Object...args) {
-    return StateT.lift(console.printf(text, args));
+  IO<Summary> loop(Matrix initial) {
+    return IO.task(System::nanoTime)
+        .flatMap(begin -> loop(Phase.START, initial, Summary.EMPTY)
+            .map(summary -> summary.elapsed(System.nanoTime() - begin)));
   }
 
-  private static final StateT<IO<?>, Matrix, Unit> quit = StateT.pure(unit());
+  private IO<Summary> loop(Phase phase, Matrix matrix, Summary summary) {
+    if (phase == Phase.QUIT) {
+      return IO.pure(summary);
+    }
+    return step(phase).run(matrix).fix(IOOf::toIO)
+        .flatMap(result -> loop(result.get2(), result.get1(),
+            count(phase, result.get1(), result.get2(), summary)));
+  }
 
-  private static final StateT<IO<?>, Matrix, Unit> click(Position position) {
-    return print("Clicked %s", position)
-        .andThen(sleep)
-        .andThen(StateT.lift(Matrix.clickS(position)::run));
+  private Summary count(Phase phase, Matrix after, Phase next, Summary summary) {
+    if (phase == Phase.START) {
+      return summary.started();
+    }
+    if (phase != Phase.TURN && phase != Phase.MOVED) {
+      return summary;
+    }
+    var counted = next == Phase.MOVED || next == Phase.AGAIN ? summary.moved() : summary;
+    return next == Phase.TURN || next == Phase.MOVED ? counted : counted.ended(after, history.score());
   }
 
-  private static final StateT<IO<?>, Matrix, String> matrixToString =
-      StateT.inspect(Matrix::toString);
+  private StateT<IO<?>, Matrix, Phase> step(Phase phase) {
+    return switch (phase) {
+      case START -> start;
+      case TURN, MOVED -> turn;
+      case AGAIN -> again;
+      case QUIT -> quit;
+    };
+  }
 
-  private static final StateT<IO<?>, Matrix, Unit> clearScreen =
-      StateT.lift(IO.exec(() -> System.out.print("\033[H\033[2J")));
+  private static Try<Integer> parseInt(String string) {
+    if (string == null) {
+      return Try.failure(new EOFException("end of input"));
+    }
+    return Try.of(() -> Integer.parseInt(string));
+  }
 
-  private static final StateT<IO<?>, Matrix, Boolean> gameOver =
-      StateT.inspect(Matrix::gameOver);
+  private StateT<IO<?>, Matrix, Unit> print(String text, Object...args) {
+    if (!display) {
+      return silent;
+    }
+    return StateT.lift(IO.unit().flatMap(_ -> output.apply(String.format(text, args) + System.lineSeparator())));
+  }
 
-  private static final StateT<IO<?>, Matrix, Integer> numberOfTiles =
-      StateT.inspect(Matrix::size);
+  private StateT<IO<?>, Matrix, Phase> command(String input) {
+    if ("u".equals(input)) {
+      return undo;
+    }
+    if ("r".equals(input)) {
+      return redo;
+    }
+    if ("h".equals(input)) {
+      return hint;
+    }
+    var x = parseInt(input);
+    return readY.flatMap(y -> Try.map2(x, y, Position::new).fold(this::error, this::click));
+  }
 
-  private static final StateT<IO<?>, Matrix, Unit> shuffle =
-      StateT.modify(m -> m.shuffle(Color::random));
+  private StateT<IO<?>, Matrix, Phase> click(Position position) {
+    return print("Clicked %s", position)
+        .andThen(StateT.<IO<?>, Matrix, Boolean>lift(matrix -> play(matrix, position)))
+        .flatMap(changed -> changed ? played : pause);
+  }
 
-  private static final StateT<IO<?>, Matrix, Unit> printMatrix =
-      clearScreen
-        .andThen(matrixToString)
-        .flatMap(Bricks::print)
-        .andThen(numberOfTiles)
-        .flatMap(n -> print("%d tiles left", n));
+  private Tuple2<Matrix, Boolean> play(Matrix matrix, Position position) {
+    var result = Matrix.clickS(position).run(matrix);
+    var next = history.push(result.get2(), result.get1());
+    return Tuple.of(next, !next.equals(matrix));
+  }
 
-  private static final StateT<IO<?>, Matrix, Unit> exit =
-      printMatrix.andThen(numberOfTiles)
-        .flatMap(n -> n > 0 ? print("Game over!!!") : print("You win!!!"));
+  private StateT<IO<?>, Matrix, Phase> error(Throwable error) {
+    if (error instanceof EOFException) {
+      return quit;
+    }
+    return print("Invalid position! %s", error).andThen(pause);
+  }
 
-  private static final StateT<IO<?>, Matrix, Unit> error(Throwable error) {
-    return print("Invalid position! %s", error).andThen(sleep).andThen(play());
+  private StateT<IO<?>, Matrix, Unit> printMatrix() {
+    return StateT.<IO<?>, Matrix, String>inspect(screen::render)
+        .flatMap(frame -> StateT.lift(output.apply(frame)))
+        .andThen(StateT.<IO<?>, Matrix, Integer>inspect(Matrix::size))
+        .flatMap(n -> print("%d tiles left, %d points", n, history.score()));
   }
 
-  private static final StateT<IO<?>, Matrix, Unit> sleep =
-      StateT.lift(IO.sleep(Duration.ofSeconds(1)));
+  private StateT<IO<?>, Matrix, Unit> exit() {
+    return printMatrix.andThen(StateT.<IO<?>, Matrix, Integer>inspect(Matrix::size))
+        .flatMap(n -> n > 0 ? print("Game over!!!") : print("You win!!!"));
+  }
 }
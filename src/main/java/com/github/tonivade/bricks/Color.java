@@ -4,25 +4,82 @@
  */
 package com.github.tonivade.bricks;
 
-import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
-import java.util.Random;
+import com.github.tonivade.purefun.core.Function1;
 
+/**
+ * Palette of the sixteen ANSI background colors. Games use the first {@code colors}
+ * values of the palette, {@link #DEFAULT_COLORS} unless configured otherwise.
+ */
 public enum Color {
-  RED("\033[0m\033[0;41m \033[0m"),
-  GREEN("\033[0m\033[0;42m \033[0m"),
-  BLUE("\033[0m\033[0;44m \033[0m"),
-  YELLOW("\033[0m\033[0;43m \033[0m");
+  RED(41),
+  GREEN(42),
+  BLUE(44),
+  YELLOW(43),
+  MAGENTA(45),
+  CYAN(46),
+  WHITE(47),
+  GRAY(100),
+  BRIGHT_RED(101),
+  BRIGHT_GREEN(102),
+  BRIGHT_BLUE(104),
+  BRIGHT_YELLOW(103),
+  BRIGHT_MAGENTA(105),
+  BRIGHT_CYAN(106),
+  BRIGHT_WHITE(107),
+  BLACK(40);
+
+  public static final int DEFAULT_COLORS = 4;
+  public static final int MAX_COLORS = 16;
 
   private final String code;
+  private final String background;
+
+  private Color(int sgr) {
+    this.background = "\033[0;" + sgr + "m";
+    this.code = "\033[0m" + background + " \033[0m";
+  }
+
+  private static final Color[] VALUES = values();
+
+  static Color of(int ordinal) {
+    return VALUES[ordinal];
+  }
+
+  static Function1<Position, Color> seeded(long seed) {
+    return seeded(seed, DEFAULT_COLORS);
+  }
 
-  private Color(String code) {
-    this.code = checkNonNull(code);
+  static Function1<Position, Color> seeded(long seed, int colors) {
+    checkColors(colors);
+    return position -> VALUES[next(seed, position.x(), position.y(), colors)];
   }
 
-  private static final Random random = new Random();
+  static int checkColors(int colors) {
+    if (colors < 1 || colors > MAX_COLORS) {
+      throw new IllegalArgumentException("invalid number of colors: " + colors);
+    }
+    return colors;
+  }
+
+  /**
+   * Returns the color of a position for the given seed. It only depends on the seed
+   * and the coordinates, not on the order positions are generated, so boards can be
+   * reproduced from the seed and generated in parallel.
+   */
+  static int next(long seed, int x, int y, int colors) {
+    var z = seed + ((((long) x) << 32) | (y & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z = z ^ (z >>> 31);
+    return (int) (((z >>> 32) * colors) >>> 32);
+  }
 
-  static Color random(Position position) {
-    return values()[Math.abs(random.nextInt() % 4)];
+  /**
+   * Returns the escape sequence that selects the color as background, without
+   * resetting it afterwards, so a run of bricks of the same color needs only one.
+   */
+  String background() {
+    return background;
   }
 
   @Override
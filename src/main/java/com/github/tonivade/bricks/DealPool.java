@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.github.tonivade.bricks.Deals.Deal;
+
+/**
+ * Pool of deals pre-generated in background threads, so a new game can start
+ * instantly. If the pool runs dry a deal is generated in the calling thread.
+ */
+public final class DealPool implements AutoCloseable {
+
+  private final Deals deals;
+  private final BlockingQueue<Deal> queue;
+  private final ExecutorService executor;
+
+  public DealPool(Deals deals, int capacity) {
+    this(deals, capacity, Math.max(1, Runtime.getRuntime().availableProcessors() - 1), new SplittableRandom());
+  }
+
+  public DealPool(Deals deals, int capacity, int workers, SplittableRandom random) {
+    this.deals = checkNonNull(deals);
+    this.queue = new ArrayBlockingQueue<>(checkPositive(capacity));
+    this.executor = Executors.newFixedThreadPool(checkPositive(workers), runnable -> {
+      var thread = new Thread(runnable, "deal-pool");
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (int i = 0; i < workers; i++) {
+      var split = random.split();
+      executor.execute(() -> fill(split));
+    }
+  }
+
+  public Deal take() {
+    var deal = queue.poll();
+    return deal != null ? deal : deals.generate(new SplittableRandom());
+  }
+
+  public int available() {
+    return queue.size();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private void fill(SplittableRandom random) {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        queue.put(deals.generate(random));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+/**
+ * Generator of full boards that are guaranteed to be cleared.
+ *
+ * <p>Boards are built backwards from an empty board, undoing clicks: every step
+ * inserts a vertical run of two or more bricks of a color that no neighbor of the
+ * run has, either inside an existing column, pushing up the bricks above, or as a
+ * new column, pushing right the columns after it. Clicking that run removes it
+ * and lets the board fall and shift back to the previous one, so the inserted runs
+ * in reverse order are a solution of the deal.</p>
+ *
+ * <p>It needs at least three colors, with only two colors a run inserted between
+ * two bricks would always touch one of its own color.</p>
+ *
+ * <p>Runs are only inserted in columns that still have free cells, kept in a list
+ * that is updated as columns get full, so filling the last cells of a big board
+ * does not depend on picking the right column at random.</p>
+ */
+public final class Deals {
+
+  static final int MIN_HEIGHT = 2;
+  static final int MIN_COLORS = 3;
+
+  private static final int MAX_ATTEMPTS = 1000;
+
+  private final int width;
+  private final int height;
+  private final int colors;
+
+  public Deals(int width, int height, int colors) {
+    this.width = checkPositive(width);
+    this.height = checkPositive(height);
+    this.colors = checkPositive(colors);
+    if (height < MIN_HEIGHT) {
+      throw new IllegalArgumentException("height should be at least 2: " + height);
+    }
+    if (colors < MIN_COLORS || colors > Color.MAX_COLORS) {
+      throw new IllegalArgumentException("invalid number of colors: " + colors);
+    }
+  }
+
+  public Deal generate(RandomGenerator random) {
+    checkNonNull(random);
+    for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+      var deal = tryGenerate(random);
+      if (deal != null) {
+        return deal;
+      }
+    }
+    throw new IllegalStateException("cannot generate a deal for " + width + "x" + height + " with " + colors + " colors");
+  }
+
+  public record Deal(Matrix matrix, ImmutableArray<Position> solution) {}
+
+  private Deal tryGenerate(RandomGenerator random) {
+    var cells = new byte[width * height];
+    Arrays.fill(cells, Matrix.EMPTY);
+    var heights = new int[width];
+    var open = new int[width];
+    var slots = new int[width];
+    var available = 0;
+    var clicks = new Position[width * height / 2];
+    var steps = 0;
+    var used = 0;
+    var tiles = 0;
+
+    while (tiles < cells.length) {
+      var inserted = false;
+      for (int attempt = 0; attempt < MAX_ATTEMPTS && !inserted; attempt++) {
+        var newColumn = used < width && (used == 0 || random.nextInt(width) >= used || available == 0);
+        if (newColumn) {
+          var x = random.nextInt(used + 1);
+          var length = length(random, height);
+          var color = color(random, forbidden(cells, heights, x - 1, 0, length)
+              | forbidden(cells, heights, x < used ? x : -1, 0, length));
+          if (color >= 0) {
+            System.arraycopy(cells, x * height, cells, (x + 1) * height, (used - x) * height);
+            System.arraycopy(heights, x, heights, x + 1, used - x);
+            Arrays.fill(cells, x * height, (x + 1) * height, Matrix.EMPTY);
+            Arrays.fill(cells, x * height, x * height + length, (byte) color);
+            heights[x] = length;
+            clicks[steps++] = Position.of(x, 0);
+            used++;
+            available = open(heights, used, open, slots);
+            tiles += length;
+            inserted = true;
+          }
+        } else {
+          if (available == 0) {
+            break;
+          }
+          var x = open[random.nextInt(available)];
+          var space = height - heights[x];
+          if (space < 2) {
+            continue;
+          }
+          var y = random.nextInt(heights[x] + 1);
+          var length = length(random, space);
+          var color = color(random, forbidden(cells, heights, x - 1, y, length)
+              | forbidden(cells, heights, x + 1 < used ? x + 1 : -1, y, length)
+              | bit(cells, heights, x, y - 1)
+              | bit(cells, heights, x, y));
+          if (color >= 0) {
+            var base = x * height;
+            System.arraycopy(cells, base + y, cells, base + y + length, heights[x] - y);
+            Arrays.fill(cells, base + y, base + y + length, (byte) color);
+            heights[x] += length;
+            if (heights[x] == height) {
+              var last = open[--available];
+              open[slots[x]] = last;
+              slots[last] = slots[x];
+            }
+            clicks[steps++] = Position.of(x, y);
+            tiles += length;
+            inserted = true;
+          }
+        }
+      }
+      if (!inserted) {
+        return null;
+      }
+    }
+
+    var solution = new Position[steps];
+    for (int i = 0; i < steps; i++) {
+      solution[i] = clicks[steps - 1 - i];
+    }
+    return new Deal(Matrix.of(width, height, cells), arrayOf(solution));
+  }
+
+  /**
+   * Fills the list of columns with free cells, and the slot of each one in the list,
+   * and returns its length.
+   */
+  private int open(int[] heights, int used, int[] open, int[] slots) {
+    var available = 0;
+    for (int x = 0; x < used; x++) {
+      if (heights[x] < height) {
+        slots[x] = available;
+        open[available++] = x;
+      }
+    }
+    return available;
+  }
+
+  /**
+   * Returns a length for a run that fits in the given space and never leaves a single
+   * free cell, that could not be filled later.
+   */
+  private static int length(RandomGenerator random, int space) {
+    var length = 2 + random.nextInt(Math.min(space, 4) - 1);
+    return space - length == 1 ? space : length;
+  }
+
+  private int color(RandomGenerator random, int forbidden) {
+    var start = random.nextInt(colors);
+    for (int i = 0; i < colors; i++) {
+      var color = (start + i) % colors;
+      if ((forbidden & (1 << color)) == 0) {
+        return color;
+      }
+    }
+    return -1;
+  }
+
+  private int forbidden(byte[] cells, int[] heights, int x, int y, int length) {
+    var forbidden = 0;
+    for (int i = y; i < y + length; i++) {
+      forbidden |= bit(cells, heights, x, i);
+    }
+    return forbidden;
+  }
+
+  private int bit(byte[] cells, int[] heights, int x, int y) {
+    if (x < 0 || x >= width || y < 0 || y >= heights[x]) {
+      return 0;
+    }
+    return 1 << cells[x * height + y];
+  }
+}
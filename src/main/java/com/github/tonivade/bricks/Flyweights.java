@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+/**
+ * Canonical {@link Position} and {@link Tile} instances of the cells of a board.
+ *
+ * <p>A table is shared by all the boards derived from the same board, so the views of
+ * every board of a game return the same instances. The positions of each column, and
+ * the tiles of each column and color, are created the first time they are used and
+ * instances are created on demand, so the table never holds more than one position
+ * and one tile per color for each cell, and only for the colors in use.</p>
+ *
+ * <p>Instances may be created twice if two threads race to fill the same slot, both are
+ * equal and immutable so it is harmless.</p>
+ */
+final class Flyweights {
+
+  private static final int COLORS = Color.values().length;
+
+  private final int width;
+  private final int height;
+  private final Position[][] positions;
+  private final Tile[][] tiles;
+
+  Flyweights(int width, int height) {
+    this.width = checkPositive(width);
+    this.height = checkPositive(height);
+    this.positions = new Position[width][];
+    this.tiles = new Tile[width * COLORS][];
+  }
+
+  Position position(int x, int y) {
+    if (x < 0 || x >= width || y < 0 || y >= height) {
+      return Position.of(x, y);
+    }
+    var column = positions[x];
+    if (column == null) {
+      column = positions[x] = new Position[height];
+    }
+    var position = column[y];
+    if (position == null) {
+      position = column[y] = Position.of(x, y);
+    }
+    return position;
+  }
+
+  Tile tile(int x, int y, Color color) {
+    checkNonNull(color);
+    if (x < 0 || x >= width || y < 0 || y >= height) {
+      return new Tile(Position.of(x, y), color);
+    }
+    var table = x * COLORS + color.ordinal();
+    var column = tiles[table];
+    if (column == null) {
+      column = tiles[table] = new Tile[height];
+    }
+    var tile = column[y];
+    if (tile == null) {
+      tile = column[y] = new Tile(position(x, y), color);
+    }
+    return tile;
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+
+import java.util.Arrays;
+
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+/**
+ * Index of all the groups of adjacent bricks of the same color of a board.
+ *
+ * <p>Groups are labeled in a single pass over the column-major cells with a
+ * union-find, joining every brick with the one below and the one on its left,
+ * and then numbered in order of appearance, so the group of a cell, its size,
+ * its color and a representative position are all available in constant time.</p>
+ *
+ * <p>Big boards are labeled in parallel by bands of columns, see {@link Bands}. Each
+ * band is labeled on its own, then the groups that cross the seam between two bands
+ * are joined, and finally the groups are numbered, with the same result as a single
+ * pass. The root of every group is always its first cell, so the numbering of each
+ * band only depends on the number of groups of the bands on its left.</p>
+ */
+public final class Groups {
+
+  private final int height;
+  private final int[] labels;
+  private final int[] sizes;
+  private final int[] first;
+  private final byte[] colors;
+
+  private Groups(int height, int[] labels, int[] sizes, int[] first, byte[] colors) {
+    this.height = height;
+    this.labels = labels;
+    this.sizes = sizes;
+    this.first = first;
+    this.colors = colors;
+  }
+
+  static Groups of(int height, byte[] cells) {
+    return of(height, cells, Bands.bounds(cells.length / height, height));
+  }
+
+  static Groups of(int height, byte[] cells, int[] bounds) {
+    var parent = new int[cells.length];
+    var weights = new int[cells.length];
+    Bands.forEach(bounds, (from, to) -> {
+      label(height, cells, parent, weights, from * height, to * height);
+      return null;
+    });
+    for (int band = 1; band < bounds.length - 1; band++) {
+      var seam = bounds[band] * height;
+      for (int i = seam; i < seam + height; i++) {
+        if (cells[i] != Matrix.EMPTY && cells[i - height] == cells[i]) {
+          union(parent, weights, i, i - height);
+        }
+      }
+    }
+
+    var roots = new int[bounds.length - 1];
+    Bands.forEach(bounds, (from, to) -> {
+      var band = Arrays.binarySearch(bounds, from);
+      for (int i = from * height; i < to * height; i++) {
+        if (cells[i] != Matrix.EMPTY && parent[i] == i) {
+          roots[band]++;
+        }
+      }
+      return null;
+    });
+    var offsets = new int[roots.length];
+    var count = 0;
+    for (int band = 0; band < roots.length; band++) {
+      offsets[band] = count;
+      count += roots[band];
+    }
+
+    var labels = new int[cells.length];
+    var sizes = new int[count];
+    var first = new int[count];
+    var colors = new byte[count];
+    Bands.forEach(bounds, (from, to) -> {
+      var group = offsets[Arrays.binarySearch(bounds, from)];
+      for (int i = from * height; i < to * height; i++) {
+        if (cells[i] != Matrix.EMPTY && parent[i] == i) {
+          first[group] = i;
+          sizes[group] = weights[i];
+          colors[group] = cells[i];
+          labels[i] = group++;
+        }
+      }
+      return null;
+    });
+    Bands.forEach(bounds, (from, to) -> {
+      for (int i = from * height; i < to * height; i++) {
+        if (cells[i] == Matrix.EMPTY) {
+          labels[i] = -1;
+        } else if (parent[i] != i) {
+          labels[i] = labels[root(parent, i)];
+        }
+      }
+      return null;
+    });
+    return new Groups(height, labels, sizes, first, colors);
+  }
+
+  /**
+   * Labels the cells of a band of columns, joining every brick with the one below and
+   * the one on its left inside the band. At the end every cell points to the root of
+   * its group in the band, and the weight of every root is the size of its group.
+   */
+  private static void label(int height, byte[] cells, int[] parent, int[] weights, int from, int to) {
+    for (int i = from; i < to; i++) {
+      parent[i] = i;
+      var cell = cells[i];
+      if (cell == Matrix.EMPTY) {
+        continue;
+      }
+      if (i % height > 0 && cells[i - 1] == cell) {
+        union(parent, i, i - 1);
+      }
+      if (i - height >= from && cells[i - height] == cell) {
+        union(parent, i, i - height);
+      }
+    }
+    for (int i = from; i < to; i++) {
+      if (cells[i] != Matrix.EMPTY) {
+        parent[i] = find(parent, i);
+        weights[parent[i]]++;
+      }
+    }
+  }
+
+  public int count() {
+    return sizes.length;
+  }
+
+  public int label(Position position) {
+    var index = position.x() * height + position.y();
+    if (position.y() < 0 || position.y() >= height || index < 0 || index >= labels.length) {
+      return -1;
+    }
+    return labels[index];
+  }
+
+  public int size(int group) {
+    return sizes[group];
+  }
+
+  public Color color(int group) {
+    return Color.of(colors[group]);
+  }
+
+  public Position position(int group) {
+    return Position.of(first[group] / height, first[group] % height);
+  }
+
+  public int largest() {
+    var largest = -1;
+    for (int group = 0; group < sizes.length; group++) {
+      if (largest < 0 || sizes[group] > sizes[largest]) {
+        largest = group;
+      }
+    }
+    return largest;
+  }
+
+  public ImmutableArray<Position> playable() {
+    var playable = 0;
+    for (var size : sizes) {
+      if (size > 1) {
+        playable++;
+      }
+    }
+    var positions = new Position[playable];
+    var i = 0;
+    for (int group = 0; group < sizes.length; group++) {
+      if (sizes[group] > 1) {
+        positions[i++] = position(group);
+      }
+    }
+    return arrayOf(positions);
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  /**
+   * Finds the root without compressing the path, so it can be called from every band
+   * at the same time.
+   */
+  private static int root(int[] parent, int i) {
+    while (parent[i] != i) {
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private static void union(int[] parent, int[] weights, int a, int b) {
+    var rootA = find(parent, a);
+    var rootB = find(parent, b);
+    if (rootA < rootB) {
+      parent[rootB] = rootA;
+      weights[rootA] += weights[rootB];
+    } else if (rootB < rootA) {
+      parent[rootA] = rootB;
+      weights[rootB] += weights[rootA];
+    }
+  }
+
+  private static void union(int[] parent, int a, int b) {
+    var rootA = find(parent, a);
+    var rootB = find(parent, b);
+    if (rootA < rootB) {
+      parent[rootB] = rootA;
+    } else if (rootB < rootA) {
+      parent[rootA] = rootB;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.github.tonivade.purefun.type.Option;
+
+/**
+ * Suggests the next position to click in a board.
+ *
+ * <p>Hints are cached in a bounded LRU keyed by the size and the Zobrist hash of the
+ * board, so asking again for the same board, or for an equal board after undoing a
+ * move, does not compute it again. The cache only keeps the keys and the positions,
+ * never the boards, so its memory does not depend on the size of the boards. Two
+ * different boards with the same size and hash would share the hint, which is
+ * unlikely enough with 64 bit hashes.</p>
+ */
+public final class Hints {
+
+  private static final int DEFAULT_CAPACITY = 256;
+  private static final int LOOKAHEAD_BEAM = 32;
+  private static final int LOOKAHEAD_TABLE_BITS = 14;
+  private static final int LOOKAHEAD_CELLS = 32 * 32;
+  private static final int MOBILITY_CELLS = 128 * 128;
+
+  static final Hints DEFAULT = new Hints(DEFAULT_CAPACITY);
+
+  public enum Heuristic {
+    /**
+     * The largest group of the board.
+     */
+    LARGEST(Policy.greedy()),
+    /**
+     * The group that leaves more groups to click after it.
+     */
+    MOBILITY(Policy.mobility()),
+    /**
+     * The first click of a short beam search.
+     */
+    LOOKAHEAD(Policy.lookahead(new Solver(LOOKAHEAD_BEAM, LOOKAHEAD_TABLE_BITS)));
+
+    private final Policy policy;
+
+    Heuristic(Policy policy) {
+      this.policy = checkNonNull(policy);
+    }
+
+    /**
+     * Returns the best heuristic that is still fast enough for the size of the board.
+     * The beam search clicks every group of every board of the beam, and the mobility
+     * clicks every group of the board, so bigger boards fall back to cheaper ones.
+     */
+    public static Heuristic of(Matrix matrix) {
+      var cells = (long) matrix.width() * matrix.height();
+      if (cells <= LOOKAHEAD_CELLS) {
+        return LOOKAHEAD;
+      }
+      return cells <= MOBILITY_CELLS ? MOBILITY : LARGEST;
+    }
+  }
+
+  private final Map<Key, Option<Position>> cache;
+
+  public Hints(int capacity) {
+    checkPositive(capacity);
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Option<Position>> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  public Option<Position> hint(Matrix matrix, Heuristic heuristic) {
+    checkNonNull(matrix);
+    var key = new Key(matrix.width(), matrix.height(), matrix.zobrist(), checkNonNull(heuristic));
+    synchronized (cache) {
+      var hint = cache.get(key);
+      if (hint != null) {
+        return hint;
+      }
+    }
+    var hint = heuristic.policy.next(matrix, new SplittableRandom(matrix.zobrist()));
+    synchronized (cache) {
+      cache.put(key, hint);
+    }
+    return hint;
+  }
+
+  private record Key(int width, int height, long zobrist, Heuristic heuristic) {}
+}
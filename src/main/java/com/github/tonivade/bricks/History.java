@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.tonivade.purefun.type.Option;
+
+/**
+ * Undo and redo history of a game.
+ *
+ * <p>Instead of one board per move, it keeps the clicks as packed cell indexes and a
+ * checkpoint of the board every {@code interval} clicks, so undoing a move replays at
+ * most {@code interval - 1} clicks from the last checkpoint. When the estimated memory
+ * goes over the budget the oldest checkpoint and its clicks are dropped, so the oldest
+ * moves can no longer be undone.</p>
+ *
+ * <p>Checkpoints are copies of the boards that never cache their {@link Groups}, and
+ * undo starts from a new copy, so the groups computed to give hints are not kept by
+ * the history and the estimation only has to count the cells.</p>
+ *
+ * <p>It also keeps the score after every click, so undoing a move undoes its points.</p>
+ *
+ * <p>It is not thread safe.</p>
+ */
+public final class History {
+
+  static final long DEFAULT_BUDGET = 1L << 20;
+  static final int DEFAULT_INTERVAL = 16;
+  private static final int OVERHEAD = 64;
+
+  private final long budget;
+  private final int interval;
+  private final List<Matrix> checkpoints = new ArrayList<>();
+
+  private int[] clicks = new int[64];
+  private long[] scores = new long[64];
+  private long base;
+  private int length;
+  private int cursor;
+  private Matrix current;
+
+  public History(Matrix initial) {
+    this(initial, DEFAULT_BUDGET, DEFAULT_INTERVAL);
+  }
+
+  public History(Matrix initial, long budget, int interval) {
+    this.budget = budget;
+    this.interval = checkPositive(interval);
+    reset(initial);
+  }
+
+  public Matrix current() {
+    return current;
+  }
+
+  public Matrix reset(Matrix initial) {
+    checkNonNull(initial);
+    checkpoints.clear();
+    checkpoints.add(initial.copy());
+    length = 0;
+    cursor = 0;
+    base = 0;
+    current = initial;
+    return initial;
+  }
+
+  public long score() {
+    return cursor == 0 ? base : scores[cursor - 1];
+  }
+
+  /**
+   * Records the board after clicking the given position in the current board. Clicks
+   * that do not change the board are ignored, any other click discards the moves that
+   * could be redone.
+   */
+  public Matrix push(Position click, Matrix next) {
+    return push(click, next, 0);
+  }
+
+  /**
+   * Records the board after the given move in the current board, adding its score.
+   */
+  public Matrix push(Move move, Matrix next) {
+    return push(checkNonNull(move).position(), next, move.score());
+  }
+
+  private Matrix push(Position click, Matrix next, int points) {
+    checkNonNull(click);
+    checkNonNull(next);
+    if (next.equals(current)) {
+      return current;
+    }
+    if (length == clicks.length) {
+      clicks = Arrays.copyOf(clicks, length * 2);
+      scores = Arrays.copyOf(scores, length * 2);
+    }
+    scores[cursor] = score() + points;
+    clicks[cursor++] = current.index(click);
+    length = cursor;
+    checkpoints.subList(checkpoint(cursor - 1) + 1, checkpoints.size()).clear();
+    if (cursor % interval == 0) {
+      checkpoints.add(next.copy());
+    }
+    current = next;
+    trim();
+    return current;
+  }
+
+  public boolean canUndo() {
+    return cursor > 0;
+  }
+
+  public boolean canRedo() {
+    return cursor < length;
+  }
+
+  public Option<Matrix> undo() {
+    if (!canUndo()) {
+      return Option.none();
+    }
+    cursor--;
+    var matrix = checkpoints.get(checkpoint(cursor)).copy();
+    for (int i = cursor - cursor % interval; i < cursor; i++) {
+      matrix = click(matrix, clicks[i]);
+    }
+    current = matrix;
+    return Option.some(current);
+  }
+
+  public Option<Matrix> redo() {
+    if (!canRedo()) {
+      return Option.none();
+    }
+    current = click(current, clicks[cursor++]);
+    return Option.some(current);
+  }
+
+  /**
+   * Returns an estimation of the memory used by the checkpoints and the clicks.
+   */
+  public long memory() {
+    var memory = (long) length * (Integer.BYTES + Long.BYTES);
+    for (var checkpoint : checkpoints) {
+      memory += (long) checkpoint.width() * checkpoint.height() + OVERHEAD;
+    }
+    return memory;
+  }
+
+  private int checkpoint(int clicks) {
+    return clicks / interval;
+  }
+
+  private void trim() {
+    while (memory() > budget && checkpoints.size() > 1 && cursor >= interval) {
+      checkpoints.remove(0);
+      base = scores[interval - 1];
+      System.arraycopy(clicks, interval, clicks, 0, length - interval);
+      System.arraycopy(scores, interval, scores, 0, length - interval);
+      length -= interval;
+      cursor -= interval;
+    }
+  }
+
+  private static Matrix click(Matrix matrix, int index) {
+    var position = Position.of(index / matrix.height(), index % matrix.height());
+    return Matrix.clickS(position).runS(matrix);
+  }
+}
@@ -4,14 +4,27 @@
  */
 package com.github.tonivade.bricks;
 
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
+import com.github.tonivade.purefun.data.Sequence;
+import com.github.tonivade.purefun.type.Option;
+
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.shape.Rectangle;
@@ -20,43 +33,210 @@ import javafx.stage.Stage;
 public class Main extends Application {
 
   private static final int TILE_SIZE = 20;
-  private static final int PADDING = TILE_SIZE * 2;
+  private static final int MIN_TILE_SIZE = 2;
+  private static final long MOVE_NANOS = 150_000_000L;
+  private static final int MAX_NODES = 100 * 100;
+
+  private static Options options = Options.DEFAULT;
 
+  private final DealPool deals;
   private final Pane pane;
+  private final int tileSize;
   private final int boardHeight;
   private final int boardWidth;
+  private final Rectangle[] nodes;
+  private final Canvas canvas;
+  private final double[] offsetX;
+  private final double[] offsetY;
+  private final int[] moving;
+  private final int[] highlighted;
+  private final AnimationTimer animation;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final History history;
 
+  private Stage stage;
   private Matrix matrix;
+  private boolean busy;
+  private int movingCount;
+  private int highlightedCount;
+  private long startTime = -1;
 
   public Main() {
-    matrix = new Matrix(10, 15).shuffle(Color::random);
+    deals = options.pool();
+    matrix = options.empty();
     pane = new Pane();
-    boardHeight = matrix.height() * TILE_SIZE;
-    boardWidth = matrix.width() * TILE_SIZE;
+    tileSize = tileSize(matrix.width(), matrix.height());
+    boardHeight = matrix.height() * tileSize;
+    boardWidth = matrix.width() * tileSize;
+    history = options.history(matrix);
+    var cells = matrix.width() * matrix.height();
+    canvas = cells > MAX_NODES ? new Canvas(boardWidth + tileSize * 2, boardHeight + tileSize * 2) : null;
+    nodes = new Rectangle[canvas == null ? cells : 0];
+    offsetX = new double[nodes.length];
+    offsetY = new double[nodes.length];
+    moving = new int[nodes.length];
+    highlighted = new int[cells];
+    animation = new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+        animate(now);
+      }
+    };
   }
 
   @Override
   public void start(Stage stage) throws Exception {
-    var scene = new Scene(pane, boardWidth + PADDING, boardHeight + PADDING);
+    var scene = new Scene(pane, boardWidth + tileSize * 2, boardHeight + tileSize * 2);
     scene.setFill(javafx.scene.paint.Color.WHITE);
 
     pane.addEventHandler(MouseEvent.MOUSE_CLICKED, this::onClick);
+    scene.addEventHandler(KeyEvent.KEY_PRESSED, this::onKey);
 
-    pane.getChildren().clear();
-    pane.getChildren().addAll(paint());
+    pane.getChildren().setAll(createNodes());
 
+    this.stage = stage;
     stage.setScene(scene);
+    stage.setTitle("Bricks");
     stage.show();
+    playAgain();
+  }
+
+  @Override
+  public void stop() {
+    executor.shutdownNow();
+    deals.close();
+  }
+
+  /**
+   * Returns the size of the tiles, so the board with a margin of one tile fits in the
+   * screen, but never bigger than the default size.
+   */
+  private static int tileSize(int width, int height) {
+    var bounds = javafx.stage.Screen.getPrimary().getVisualBounds();
+    var fit = Math.min(bounds.getWidth() / (width + 2), bounds.getHeight() / (height + 2));
+    return Math.max(MIN_TILE_SIZE, Math.min(TILE_SIZE, (int) fit));
   }
 
   private void onClick(MouseEvent event) {
-    int x = (Double.valueOf(event.getSceneX()).intValue() / TILE_SIZE) - 1;
-    int y = matrix.height() - (Double.valueOf(event.getSceneY()).intValue() / TILE_SIZE);
-    matrix = Matrix.clickS(new Position(x, y)).runS(matrix);
-    pane.getChildren().clear();
-    pane.getChildren().addAll(paint());
+    if (busy) {
+      return;
+    }
+    int x = (Double.valueOf(event.getSceneX()).intValue() / tileSize) - 1;
+    int y = matrix.height() - (Double.valueOf(event.getSceneY()).intValue() / tileSize);
+    var previous = matrix;
+    busy = true;
+    CompletableFuture.supplyAsync(() -> click(previous, Position.of(x, y)), executor)
+      .whenComplete((result, error) -> Platform.runLater(() -> {
+        busy = false;
+        if (error != null) {
+          error(error);
+        } else {
+          apply(previous, result);
+        }
+      }));
+  }
+
+  private void onKey(KeyEvent event) {
+    if (busy) {
+      return;
+    }
+    if (event.isShortcutDown() && event.getCode() == KeyCode.Z) {
+      navigate(event.isShiftDown() ? history::redo : history::undo);
+    } else if (event.isShortcutDown() && event.getCode() == KeyCode.Y) {
+      navigate(history::redo);
+    } else if (event.getCode() == KeyCode.H) {
+      hint();
+    }
+  }
 
-    if (matrix.gameOver()) {
+  /**
+   * Undoing a move replays the clicks from the last checkpoint, so it runs in the
+   * executor like a click, and the board is shown back in the UI thread.
+   */
+  private void navigate(Supplier<Option<Matrix>> action) {
+    busy = true;
+    CompletableFuture.supplyAsync(action, executor)
+      .whenComplete((board, error) -> Platform.runLater(() -> {
+        busy = false;
+        if (error != null) {
+          error(error);
+        } else {
+          show(board);
+        }
+      }));
+  }
+
+  private void hint() {
+    var current = matrix;
+    busy = true;
+    CompletableFuture.supplyAsync(() -> current.hint(Hints.Heuristic.of(current)).map(current::adjacent), executor)
+      .whenComplete((region, error) -> Platform.runLater(() -> {
+        busy = false;
+        if (error != null) {
+          error(error);
+        } else if (region.isPresent() && matrix == current) {
+          highlight(region.getOrElseThrow());
+        }
+      }));
+  }
+
+  private void highlight(Sequence<Position> region) {
+    clearHighlight();
+    for (var position : region) {
+      var index = matrix.index(position);
+      if (canvas != null) {
+        var graphics = canvas.getGraphicsContext2D();
+        graphics.setStroke(javafx.scene.paint.Color.BLACK);
+        graphics.setLineWidth(1);
+        graphics.strokeRect(left(index) + 0.5, top(index) + 0.5, tileSize - 1, tileSize - 1);
+      } else {
+        nodes[index].setStroke(javafx.scene.paint.Color.BLACK);
+        nodes[index].setStrokeWidth(2);
+      }
+      highlighted[highlightedCount++] = index;
+    }
+  }
+
+  private void clearHighlight() {
+    for (int i = 0; i < highlightedCount; i++) {
+      if (canvas != null) {
+        paint(highlighted[i]);
+      } else {
+        nodes[highlighted[i]].setStroke(null);
+      }
+    }
+    highlightedCount = 0;
+  }
+
+  private void show(Option<Matrix> board) {
+    if (board.isPresent()) {
+      stopAnimation();
+      var previous = matrix;
+      matrix = board.getOrElseThrow();
+      render(previous);
+    }
+  }
+
+  private static Click click(Matrix matrix, Position position) {
+    var moves = new MoveBuffer();
+    var result = Matrix.clickS(position, moves).run(matrix);
+    var next = result.get1();
+    return new Click(result.get2(), next, moves, next.gameOver());
+  }
+
+  private void apply(Matrix previous, Click click) {
+    if (matrix != previous) {
+      return;
+    }
+    stopAnimation();
+    matrix = history.push(click.move(), click.matrix());
+    render(previous);
+    if (canvas == null) {
+      click.moves().forEach(this::moved);
+      startAnimation();
+    }
+
+    if (click.gameOver()) {
       if (matrix.isEmpty()) {
         win();
       } else {
@@ -65,6 +245,10 @@ public class Main extends Application {
     }
   }
 
+  private void error(Throwable error) {
+    new Alert(AlertType.ERROR, String.valueOf(error.getMessage())).showAndWait();
+  }
+
   private void win() {
     new Alert(AlertType.INFORMATION, "YOU WIN!!").showAndWait();
   }
@@ -80,23 +264,123 @@ public class Main extends Application {
   }
 
   private void playAgain() {
-    matrix = matrix.shuffle(Color::random);
-    pane.getChildren().clear();
-    pane.getChildren().addAll(paint());
+    busy = true;
+    CompletableFuture.supplyAsync(deals::take, executor)
+      .whenComplete((deal, error) -> Platform.runLater(() -> {
+        busy = false;
+        if (error != null) {
+          error(error);
+        } else {
+          stopAnimation();
+          var previous = matrix;
+          matrix = history.reset(deal.matrix());
+          render(previous);
+        }
+      }));
   }
 
-  private Collection<Rectangle> paint() {
-    return matrix.bricks().values().map(this::toRectangle).toCollection();
+  private void render(Matrix previous) {
+    var start = Metrics.start();
+    clearHighlight();
+    matrix.diff(previous, this::paint);
+    Metrics.stop(Metrics.Operation.PAINT, start);
+    if (stage != null) {
+      stage.setTitle(String.format("Bricks - %d points", history.score()));
+    }
+  }
+
+  private void moved(int from, int to) {
+    var height = matrix.height();
+    offsetX[to] = ((from / height) - (to / height)) * tileSize;
+    offsetY[to] = ((to % height) - (from % height)) * tileSize;
+    moving[movingCount++] = to;
+  }
+
+  private void startAnimation() {
+    if (movingCount > 0) {
+      startTime = -1;
+      for (int i = 0; i < movingCount; i++) {
+        var index = moving[i];
+        nodes[index].setTranslateX(offsetX[index]);
+        nodes[index].setTranslateY(offsetY[index]);
+      }
+      animation.start();
+    }
+  }
+
+  private void animate(long now) {
+    if (startTime < 0) {
+      startTime = now;
+    }
+    var progress = Math.min(1.0, (double) (now - startTime) / MOVE_NANOS);
+    if (progress >= 1.0) {
+      stopAnimation();
+      return;
+    }
+    var remaining = (1.0 - progress) * (1.0 - progress);
+    for (int i = 0; i < movingCount; i++) {
+      var index = moving[i];
+      nodes[index].setTranslateX(offsetX[index] * remaining);
+      nodes[index].setTranslateY(offsetY[index] * remaining);
+    }
+  }
+
+  private void stopAnimation() {
+    animation.stop();
+    for (int i = 0; i < movingCount; i++) {
+      var index = moving[i];
+      nodes[index].setTranslateX(0);
+      nodes[index].setTranslateY(0);
+    }
+    movingCount = 0;
+  }
+
+  /**
+   * Creates one node per cell, so only the cells that change are repainted and the
+   * bricks can fall with an animation. Big boards would need too many nodes, so they
+   * are drawn in a single canvas without animations.
+   */
+  private List<? extends Node> createNodes() {
+    if (canvas != null) {
+      return List.of(canvas);
+    }
+    for (int x = 0; x < matrix.width(); x++) {
+      for (int y = 0; y < matrix.height(); y++) {
+        var index = matrix.index(x, y);
+        nodes[index] = new Rectangle(left(index), top(index), tileSize, tileSize);
+        paint(index);
+      }
+    }
+    return Arrays.asList(nodes);
+  }
+
+  private double left(int index) {
+    return tileSize + (index / matrix.height()) * tileSize;
+  }
+
+  private double top(int index) {
+    return boardHeight - (index % matrix.height()) * tileSize;
   }
 
-  private Rectangle toRectangle(Tile tile) {
-    var rectangle = new Rectangle(
-        TILE_SIZE + (tile.position().x() * TILE_SIZE),
-       boardHeight - (tile.position().y() * TILE_SIZE),
-       TILE_SIZE,
-       TILE_SIZE);
-    rectangle.setFill(toColor(tile.color()));
-    return rectangle;
+  private void paint(int index) {
+    var cell = matrix.cell(index / matrix.height(), index % matrix.height());
+    if (canvas != null) {
+      var graphics = canvas.getGraphicsContext2D();
+      if (cell == Matrix.EMPTY) {
+        graphics.clearRect(left(index), top(index), tileSize, tileSize);
+      } else {
+        graphics.setFill(toColor(Color.of(cell)));
+        graphics.fillRect(left(index), top(index), tileSize, tileSize);
+      }
+      return;
+    }
+    var node = nodes[index];
+    if (cell == Matrix.EMPTY) {
+      node.setVisible(false);
+    } else {
+      node.setFill(toColor(Color.of(cell)));
+      node.setVisible(true);
+    }
   }
 
   private javafx.scene.paint.Color toColor(Color color) {
@@ -105,10 +389,47 @@ public class Main extends Application {
       case GREEN -> javafx.scene.paint.Color.GREEN;
       case BLUE -> javafx.scene.paint.Color.BLUE;
       case YELLOW -> javafx.scene.paint.Color.YELLOW;
+      case MAGENTA -> javafx.scene.paint.Color.MAGENTA;
+      case CYAN -> javafx.scene.paint.Color.CYAN;
+      case WHITE -> javafx.scene.paint.Color.GAINSBORO;
+      case GRAY -> javafx.scene.paint.Color.GRAY;
+      case BRIGHT_RED -> javafx.scene.paint.Color.SALMON;
+      case BRIGHT_GREEN -> javafx.scene.paint.Color.LIGHTGREEN;
+      case BRIGHT_BLUE -> javafx.scene.paint.Color.LIGHTSKYBLUE;
+      case BRIGHT_YELLOW -> javafx.scene.paint.Color.KHAKI;
+      case BRIGHT_MAGENTA -> javafx.scene.paint.Color.VIOLET;
+      case BRIGHT_CYAN -> javafx.scene.paint.Color.PALETURQUOISE;
+      case BRIGHT_WHITE -> javafx.scene.paint.Color.SILVER;
+      case BLACK -> javafx.scene.paint.Color.BLACK;
     };
   }
 
+  private record Click(Move move, Matrix matrix, MoveBuffer moves, boolean gameOver) {}
+
+  private static final class MoveBuffer implements Moves {
+
+    private int[] pairs = new int[64];
+    private int count;
+
+    @Override
+    public void moved(int from, int to) {
+      if (count == pairs.length) {
+        pairs = Arrays.copyOf(pairs, count * 2);
+      }
+      pairs[count++] = from;
+      pairs[count++] = to;
+    }
+
+    void forEach(Moves moves) {
+      for (int i = 0; i < count; i += 2) {
+        moves.moved(pairs[i], pairs[i + 1]);
+      }
+    }
+  }
+
   public static void main(String[] args) {
+    Metrics.install();
+    options = Options.parse(args);
     launch(args);
   }
 }
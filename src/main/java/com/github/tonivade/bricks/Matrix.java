@@ -5,77 +5,199 @@
 package com.github.tonivade.bricks;
 
 import static com.github.tonivade.purefun.core.Function1.identity;
-import static com.github.tonivade.purefun.core.Matcher1.not;
 import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
 import static com.github.tonivade.purefun.core.Precondition.checkPositive;
 import static com.github.tonivade.purefun.data.Sequence.arrayOf;
-import static com.github.tonivade.purefun.data.Sequence.emptyArray;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
 
 import com.github.tonivade.purefun.core.Function1;
 import com.github.tonivade.purefun.core.Tuple;
 import com.github.tonivade.purefun.core.Tuple2;
-import com.github.tonivade.purefun.core.Unit;
 import com.github.tonivade.purefun.data.ImmutableArray;
 import com.github.tonivade.purefun.data.ImmutableMap;
-import com.github.tonivade.purefun.data.ImmutableSet;
 import com.github.tonivade.purefun.data.Range;
 import com.github.tonivade.purefun.data.Sequence;
 import com.github.tonivade.purefun.monad.State;
 import com.github.tonivade.purefun.type.Option;
 
-public record Matrix(int width, int height, ImmutableMap<Position, Tile> bricks) {
+/**
+ * Immutable board of bricks.
+ *
+ * <p>Bricks are stored packed in a column-major {@code byte[]} holding the ordinal of
+ * the color of each cell, or {@link #EMPTY} if there is no brick. {@link Tile} and
+ * {@link Position} instances are only created on demand by the views.</p>
+ *
+ * <p>Each board also keeps the number of pairs of adjacent bricks of the same color.
+ * It is updated incrementally every time a cell changes, so {@link #gameOver()} is
+ * just a check of that counter.</p>
+ *
+ * <p>Boards also remember if they are known to be settled, that is, no brick has an
+ * empty cell below it and there are no empty columns on the left of a brick, so after
+ * a click only the columns touched need to fall.</p>
+ *
+ * <p>A Zobrist hash of the cells is maintained the same way, with the keys of each
+ * cell and color derived from a mix function instead of a table, so boards can be
+ * compared and stored in transposition tables without looking at every cell.</p>
+ *
+ * <p>The main operations are measured by {@link Metrics} when it is enabled.</p>
+ */
+public final class Matrix {
+
+  static final byte EMPTY = -1;
+
+  private static final int MATRIX_BYTES = 56;
 
-  public Matrix {
-    checkPositive(width);
-    checkPositive(height);
-    checkNonNull(bricks);
+  private final int width;
+  private final int height;
+  private final byte[] cells;
+  private final int size;
+  private final int pairs;
+  private final boolean settled;
+  private final long zobrist;
+  private final Flyweights flyweights;
+
+  private Groups groups;
+
+  public Matrix(int width, int height, ImmutableMap<Position, Tile> bricks) {
+    this(width, height, checkNonNull(bricks).values());
   }
 
   public Matrix(int width, int height) {
-    this(width, height, emptyArray());
+    this(new Flyweights(width, height), width, height, empty(width, height), 0, 0, true, 0L);
   }
 
   public Matrix(int width, int height, Sequence<Tile> tiles) {
-    this(width, height, tiles.pipeline().toImmutableMap(Tile::position, identity()));
+    this(new Flyweights(width, height), width, height, pack(width, height, checkNonNull(tiles)));
   }
 
-  public static State<Matrix, Unit> clickS(Position position) {
-    return lookup(position).flatMap(Matrix::cleanFallShift);
+  private Matrix(Flyweights flyweights, int width, int height, byte[] cells) {
+    this(flyweights, width, height, cells,
+        Bands.reduce(width, height, (from, to) -> Counts.of(height, cells, from * height, to * height), Counts::merge));
   }
 
-  private static State<Matrix, Unit> cleanFallShift(Sequence<Position> toClean) {
-    return cleanS(toClean).andThen(fallS).andThen(shiftS);
+  private Matrix(Flyweights flyweights, int width, int height, byte[] cells, Counts counts) {
+    this(flyweights, width, height, cells, counts.size(), counts.pairs(), counts.settled(), counts.zobrist());
   }
 
-  private static State<Matrix, Sequence<Position>> lookup(Position position) {
-    return State.inspect(m -> m.adjacent(position));
+  private Matrix(Flyweights flyweights, int width, int height, byte[] cells,
+      int size, int pairs, boolean settled, long zobrist) {
+    this.flyweights = checkNonNull(flyweights);
+    this.width = checkPositive(width);
+    this.height = checkPositive(height);
+    this.cells = checkNonNull(cells);
+    this.size = size;
+    this.pairs = pairs;
+    this.settled = settled;
+    this.zobrist = zobrist;
   }
 
-  private static State<Matrix, Unit> cleanS(Sequence<Position> toClean) {
-    return State.modify(m -> m.clean(toClean));
+  /**
+   * Creates a board from packed cells, in the same column-major layout used internally.
+   * The array is not copied.
+   */
+  static Matrix of(int width, int height, byte[] cells) {
+    checkNonNull(cells);
+    if (cells.length != checkPositive(width) * checkPositive(height)) {
+      throw new IllegalArgumentException("invalid number of cells: " + cells.length);
+    }
+    for (var cell : cells) {
+      if (cell != EMPTY && (cell < 0 || cell >= Color.MAX_COLORS)) {
+        throw new IllegalArgumentException("invalid cell: " + cell);
+      }
+    }
+    return new Matrix(new Flyweights(width, height), width, height, cells);
+  }
+
+  public static State<Matrix, Move> clickS(Position position) {
+    return clickS(position, Moves.none());
   }
 
-  private static State<Matrix, Unit> fallS = State.modify(Matrix::fall);
+  public static State<Matrix, Move> clickS(Position position, Moves moves) {
+    checkNonNull(moves);
+    return lookup(position).flatMap(group -> cleanFallShift(position, group, moves));
+  }
 
-  private static State<Matrix, Unit> shiftS = State.modify(Matrix::shift);
+  private static State<Matrix, Move> cleanFallShift(Position position, long[] group, Moves moves) {
+    return State.state(m -> m.remove(position, group, moves));
+  }
+
+  private static State<Matrix, long[]> lookup(Position position) {
+    return State.inspect(m -> m.flood(position));
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  public ImmutableMap<Position, Tile> bricks() {
+    return tiles().pipeline().toImmutableMap(Tile::position, identity());
+  }
+
+  public ImmutableArray<Tile> tiles() {
+    var tiles = new Tile[size];
+    var i = 0;
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        var cell = cells[index(x, y)];
+        if (cell != EMPTY) {
+          tiles[i++] = flyweights.tile(x, y, Color.of(cell));
+        }
+      }
+    }
+    return arrayOf(tiles);
+  }
 
   public Matrix shuffle(Function1<Position, Color> nextColor) {
-    return new Matrix(width, height, positions().map(p -> new Tile(p, nextColor.apply(p))));
+    var newCells = new byte[cells.length];
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        newCells[index(x, y)] = (byte) nextColor.apply(flyweights.position(x, y)).ordinal();
+      }
+    }
+    return new Matrix(flyweights, width, height, newCells);
+  }
+
+  public Matrix shuffle(long seed) {
+    return shuffle(seed, Color.DEFAULT_COLORS);
+  }
+
+  /**
+   * Fills the board with colors derived from the seed. Big boards are filled and
+   * counted in parallel by bands of columns, see {@link Bands}.
+   */
+  public Matrix shuffle(long seed, int colors) {
+    Color.checkColors(colors);
+    var newCells = new byte[cells.length];
+    Bands.forEach(Bands.bounds(width, height), (from, to) -> {
+      for (int x = from; x < to; x++) {
+        for (int y = 0; y < height; y++) {
+          newCells[index(x, y)] = (byte) Color.next(seed, x, y, colors);
+        }
+      }
+      return null;
+    });
+    return new Matrix(flyweights, width, height, newCells);
   }
 
   public Matrix move(Tile tile, Position position) {
-    return clean(arrayOf(tile.position())).addTiles(arrayOf(new Tile(position, tile.color())));
+    return clean(arrayOf(tile.position())).addTiles(arrayOf(flyweights.tile(position.x(), position.y(), tile.color())));
   }
 
   public Matrix moveColumn(int from, int to) {
     var newColumn = col(from)
-        .flatMap(p -> atPosition(p).map(t -> new Tile(new Position(to, p.y()), t.color())).sequence());
+        .flatMap(p -> atPosition(p).map(t -> flyweights.tile(to, p.y(), t.color())).sequence());
     return cleanColumn(from).addTiles(newColumn);
   }
 
   public Matrix moveRow(int from, int to) {
     var newRow = row(from)
-        .flatMap(p -> atPosition(p).map(t -> new Tile(new Position(p.x(), to), t.color())).sequence());
+        .flatMap(p -> atPosition(p).map(t -> flyweights.tile(p.x(), to, t.color())).sequence());
     return cleanRow(from).addTiles(newRow);
   }
 
@@ -88,27 +210,91 @@ public record Matrix(int width, int height, ImmutableMap<Position, Tile> bricks)
   }
 
   public Matrix clean(Sequence<Position> positions) {
-    return new Matrix(width, height, bricks.removeAll(positions));
+    var start = Metrics.start();
+    var newCells = cells.clone();
+    var newSize = size;
+    var newPairs = pairs;
+    var newZobrist = zobrist;
+    for (var position : positions) {
+      if (inside(position.x(), position.y()) && newCells[index(position)] != EMPTY) {
+        var index = index(position);
+        newZobrist ^= key(index, newCells[index]);
+        newPairs += put(newCells, index, EMPTY);
+        newSize--;
+      }
+    }
+    var result = new Matrix(flyweights, width, height, newCells, newSize, newPairs, false, newZobrist);
+    Metrics.stop(Metrics.Operation.CLEAN, start, Metrics.array(cells.length, Byte.BYTES) + MATRIX_BYTES);
+    return result;
   }
 
   public Matrix addTiles(Sequence<Tile> toAdd) {
-    var newTiles = toAdd.map(t -> Tuple.of(t.position(), t))
-        .pipeline().toImmutableMap(Tuple2::get1, Tuple2::get2);
-    return new Matrix(width, height, bricks.putAll(newTiles));
+    var newCells = cells.clone();
+    var newSize = size;
+    var newPairs = pairs;
+    var newZobrist = zobrist;
+    for (var tile : toAdd) {
+      var index = index(checkInside(width, height, tile.position()));
+      var cell = (byte) tile.color().ordinal();
+      if (newCells[index] == EMPTY) {
+        newSize++;
+      }
+      newZobrist ^= key(index, newCells[index]) ^ key(index, cell);
+      newPairs += put(newCells, index, cell);
+    }
+    return new Matrix(flyweights, width, height, newCells, newSize, newPairs, false, newZobrist);
   }
 
   public Sequence<Position> adjacent(Position position) {
-    return atPosition(position)
-        .map(t -> visit(t, ImmutableSet.empty()))
-        .getOrElse(ImmutableSet.empty());
+    var start = Metrics.start();
+    var board = new BitBoard(cells, height);
+    var region = region(board, position);
+    var positions = new Position[BitBoard.count(region)];
+    var i = 0;
+    for (int w = 0; w < region.length; w++) {
+      for (var bits = region[w]; bits != 0; bits &= bits - 1) {
+        var index = (w << 6) + Long.numberOfTrailingZeros(bits);
+        positions[i++] = flyweights.position(index / height, index % height);
+      }
+    }
+    Metrics.stop(Metrics.Operation.ADJACENT, start,
+        board.allocated() + Metrics.array(positions.length, Integer.BYTES));
+    return arrayOf(positions);
+  }
+
+  /**
+   * Returns a board with the same cells that does not share the groups cached by
+   * this one. The cells are not copied.
+   */
+  Matrix copy() {
+    return new Matrix(flyweights, width, height, cells, size, pairs, settled, zobrist);
+  }
+
+  public Groups groups() {
+    if (groups == null) {
+      groups = Groups.of(height, cells);
+    }
+    return groups;
+  }
+
+  /**
+   * Returns the position suggested by the given heuristic to click next, or none if
+   * there is no group left to click. Hints are cached, see {@link Hints}.
+   */
+  public Option<Position> hint(Hints.Heuristic heuristic) {
+    return Hints.DEFAULT.hint(this, heuristic);
   }
 
   public Option<Tile> atPosition(int x, int y) {
-    return atPosition(new Position(x, y));
+    return atPosition(flyweights.position(x, y));
   }
 
   public Option<Tile> atPosition(Position position) {
-    return bricks.get(position);
+    var cell = cell(position.x(), position.y());
+    if (cell == EMPTY) {
+      return Option.none();
+    }
+    return Option.some(flyweights.tile(position.x(), position.y(), Color.of(cell)));
   }
 
   public Sequence<Tile> atCol(int x) {
@@ -122,26 +308,35 @@ public record Matrix(int width, int height, ImmutableMap<Position, Tile> bricks)
   }
 
   public boolean isPresent(Position position) {
-    return bricks.containsKey(position);
+    return cell(position.x(), position.y()) != EMPTY;
   }
 
   public int size() {
-    return bricks.size();
+    return size;
   }
 
   public boolean isEmpty() {
-    return bricks.isEmpty();
+    return size == 0;
   }
 
   public boolean gameOver() {
-    return bricks.values().flatMap(this::search).isEmpty();
+    var start = Metrics.start();
+    var gameOver = pairs == 0;
+    Metrics.stop(Metrics.Operation.GAME_OVER, start);
+    return gameOver;
   }
 
   public ImmutableArray<Position> positions() {
-    var positions = Range.of(0, width).map(
-        x -> Range.of(0, height).map(
-            y -> new Position(x, y)));
-    return positions.flatMap(identity());
+    var positions = new Position[width * height];
+    Bands.forEach(Bands.bounds(width, height), (from, to) -> {
+      for (int x = from; x < to; x++) {
+        for (int y = 0; y < height; y++) {
+          positions[index(x, y)] = flyweights.position(x, y);
+        }
+      }
+      return null;
+    });
+    return arrayOf(positions);
   }
 
   public ImmutableArray<ImmutableArray<Position>> rows() {
@@ -149,7 +344,7 @@ public record Matrix(int width, int height, ImmutableMap<Position, Tile> bricks)
   }
 
   public ImmutableArray<Position> row(int y) {
-    return Range.of(0, width).map(x -> new Position(x, y));
+    return Range.of(0, width).map(x -> flyweights.position(x, y));
   }
 
   public ImmutableArray<ImmutableArray<Position>> cols() {
@@ -157,97 +352,409 @@ public record Matrix(int width, int height, ImmutableMap<Position, Tile> bricks)
   }
 
   public ImmutableArray<Position> col(int x) {
-    return Range.of(0, height).map(y -> new Position(x, y));
+    return Range.of(0, height).map(y -> flyweights.position(x, y));
   }
 
   public Matrix fall() {
-    return fallCol(0);
+    return fall(Moves.none());
+  }
+
+  public Matrix fall(Moves moves) {
+    return compact(0, width - 1, true, false, settled, checkNonNull(moves));
   }
 
   public Matrix shift() {
-    return shiftCol(0);
+    return shift(Moves.none());
   }
 
-  private Matrix fallCol(int col) {
-    if (col < width) {
-      return fallTile(col, 0).fallCol(col + 1);
+  public Matrix shift(Moves moves) {
+    return compact(0, width - 1, false, true, settled, checkNonNull(moves));
+  }
+
+  /**
+   * Calls the action with the index of every cell that is different in the previous
+   * board, comparing the packed cells in bulk.
+   */
+  void diff(Matrix previous, IntConsumer changed) {
+    if (width != previous.width || height != previous.height) {
+      throw new IllegalArgumentException("cannot diff boards of different size");
+    }
+    var from = 0;
+    while (from < cells.length) {
+      var mismatch = Arrays.mismatch(cells, from, cells.length, previous.cells, from, cells.length);
+      if (mismatch < 0) {
+        break;
+      }
+      changed.accept(from + mismatch);
+      from += mismatch + 1;
     }
-    return this;
   }
 
-  private Matrix shiftCol(int col) {
-    if (col < width) {
-      return tryMoveCol(col).getOrElse(this).shiftCol(col + 1);
+  byte cell(int x, int y) {
+    return inside(x, y) ? cells[index(x, y)] : EMPTY;
+  }
+
+  boolean inside(int x, int y) {
+    return x >= 0 && x < width && y >= 0 && y < height;
+  }
+
+  int index(int x, int y) {
+    return x * height + y;
+  }
+
+  int index(Position position) {
+    return index(position.x(), position.y());
+  }
+
+  int pairs() {
+    return pairs;
+  }
+
+  public long zobrist() {
+    return zobrist;
+  }
+
+  private Matrix clean(long[] region) {
+    var start = Metrics.start();
+    var newCells = cells.clone();
+    var newPairs = pairs;
+    var newZobrist = zobrist;
+    for (int w = 0; w < region.length; w++) {
+      for (var bits = region[w]; bits != 0; bits &= bits - 1) {
+        var index = (w << 6) + Long.numberOfTrailingZeros(bits);
+        newZobrist ^= key(index, newCells[index]);
+        newPairs += put(newCells, index, EMPTY);
+      }
+    }
+    var result = new Matrix(flyweights, width, height, newCells,
+        size - BitBoard.count(region), newPairs, false, newZobrist);
+    Metrics.stop(Metrics.Operation.CLEAN, start, Metrics.array(cells.length, Byte.BYTES) + MATRIX_BYTES);
+    return result;
+  }
+
+  /**
+   * Removes the group if it has at least two tiles, and lets the rest fall and shift.
+   * The move is described from the values already computed, so it needs no extra pass
+   * over the board, only over the columns of the group to find the ones emptied.
+   */
+  private Tuple2<Matrix, Move> remove(Position position, long[] group, Moves moves) {
+    var start = System.nanoTime();
+    var size = BitBoard.count(group);
+    var color = size > 0 ? Option.some(Color.of(cells[index(position)])) : Option.<Color>none();
+    var first = -1;
+    var last = -1;
+    if (size > 1) {
+      for (int w = 0; w < group.length; w++) {
+        if (group[w] != 0) {
+          if (first < 0) {
+            first = (w << 6) + Long.numberOfTrailingZeros(group[w]);
+          }
+          last = (w << 6) + 63 - Long.numberOfLeadingZeros(group[w]);
+        }
+      }
     }
-    return this;
+    var cleaned = first < 0 ? this : clean(group);
+    var columns = first < 0 ? 0 : cleaned.emptyColumns(first / height, last / height);
+    var middle = System.nanoTime();
+
+    Matrix result;
+    if (settled) {
+      result = first < 0 ? this : cleaned.compact(first / height, last / height, true, true, true, moves);
+    } else {
+      result = cleaned.compact(0, width - 1, true, true, true, moves);
+    }
+    var end = System.nanoTime();
+
+    var removed = first < 0 ? 0 : size;
+    var move = new Move(position, color, size, removed, columns, removed > 0 && result.isEmpty(),
+        middle - start, end - middle);
+    return Tuple.of(result, move);
   }
 
-  private Matrix fallTile(int col, int top) {
-    if (top < height) {
-      return tryMove(col, top).getOrElse(this).fallTile(col, top + 1);
+  private int emptyColumns(int from, int to) {
+    var columns = 0;
+    for (int x = from; x <= to; x++) {
+      var empty = true;
+      for (int i = x * height; empty && i < (x + 1) * height; i++) {
+        empty = cells[i] == EMPTY;
+      }
+      if (empty) {
+        columns++;
+      }
+    }
+    return columns;
+  }
+
+  /**
+   * Computes in a single pass the final layout of the columns from {@code from}, letting
+   * the bricks of the columns up to {@code to} fall down when {@code gravity} is set, and
+   * moving the columns left over the empty ones when {@code shift} is set. Columns on the
+   * right of {@code to} are only visited if some column has been shifted. Every brick
+   * that ends in a different cell is reported to {@code moves}.
+   */
+  private Matrix compact(int from, int to, boolean gravity, boolean shift, boolean settled, Moves moves) {
+    var start = Metrics.start();
+    var result = layout(from, to, gravity, shift, settled, moves);
+    Metrics.stop(Metrics.Operation.COMPACT, start,
+        Metrics.array(cells.length, Byte.BYTES) + (result == this ? 0 : MATRIX_BYTES));
+    return result;
+  }
+
+  private Matrix layout(int from, int to, boolean gravity, boolean shift, boolean settled, Moves moves) {
+    var newCells = cells.clone();
+    var changed = false;
+    var target = from;
+    var x = from;
+    for (; x < width; x++) {
+      if (x > to && target == x) {
+        break;
+      }
+      var src = x * height;
+      var dst = target * height;
+      var tiles = 0;
+      if (gravity && x <= to) {
+        for (int y = 0; y < height; y++) {
+          var cell = cells[src + y];
+          if (cell != EMPTY) {
+            if (dst + tiles != src + y) {
+              changed = true;
+              moves.moved(src + y, dst + tiles);
+            }
+            newCells[dst + tiles++] = cell;
+          }
+        }
+        Arrays.fill(newCells, dst + tiles, dst + height, EMPTY);
+      } else {
+        for (int y = 0; y < height; y++) {
+          if (cells[src + y] != EMPTY) {
+            tiles++;
+            if (dst != src) {
+              moves.moved(src + y, dst + y);
+            }
+          }
+        }
+        changed |= tiles > 0 && dst != src;
+        System.arraycopy(cells, src, newCells, dst, height);
+      }
+      if (!shift || tiles > 0) {
+        target++;
+      }
+    }
+    Arrays.fill(newCells, target * height, x * height, EMPTY);
+
+    if (!changed) {
+      if (settled == this.settled) {
+        return this;
+      }
+      return new Matrix(flyweights, width, height, cells, size, pairs, settled, zobrist);
+    }
+    var newPairs = pairs - countPairs(cells, from, x) + countPairs(newCells, from, x);
+    var newZobrist = zobrist
+        ^ zobrist(cells, from * height, x * height)
+        ^ zobrist(newCells, from * height, x * height);
+    return new Matrix(flyweights, width, height, newCells, size, newPairs, settled, newZobrist);
+  }
+
+  private int countPairs(byte[] cells, int from, int to) {
+    var pairs = 0;
+    for (int x = from; x < to; x++) {
+      for (int i = x * height; i < (x + 1) * height; i++) {
+        var cell = cells[i];
+        if (cell != EMPTY && i % height < height - 1 && cells[i + 1] == cell) {
+          pairs++;
+        }
+      }
     }
-    return this;
+    for (int x = Math.max(0, from - 1); x < Math.min(to, width - 1); x++) {
+      for (int i = x * height; i < (x + 1) * height; i++) {
+        var cell = cells[i];
+        if (cell != EMPTY && cells[i + height] == cell) {
+          pairs++;
+        }
+      }
+    }
+    return pairs;
   }
 
-  private Option<Matrix> tryMoveCol(int col) {
-    return nextX(col).map(nextX -> moveColumn(col, nextX));
+  private int put(byte[] cells, int index, byte value) {
+    var before = pairsAt(height, cells, index);
+    cells[index] = value;
+    return pairsAt(height, cells, index) - before;
   }
 
-  private Option<Matrix> tryMove(int col, int top) {
-    return atPosition(col, top)
-      .flatMap(t -> nextY(col, top)
-          .map(nextY -> move(t, new Position(col, nextY))));
+  private long[] region(BitBoard board, Position position) {
+    var region = flood(board, position);
+    return BitBoard.count(region) > 1 ? region : new long[0];
   }
 
-  private Option<Integer> nextX(int left) {
-    return row(0).takeWhile(p -> p.x() < left)
-        .findFirst(not(this::isPresent)).map(Position::x);
+  private long[] flood(Position position) {
+    return flood(new BitBoard(cells, height), position);
   }
 
-  private Option<Integer> nextY(int col, int top) {
-    return col(col).takeWhile(p -> p.y() < top)
-        .findFirst(not(this::isPresent)).map(Position::y);
+  private long[] flood(BitBoard board, Position position) {
+    if (!isPresent(position)) {
+      return new long[0];
+    }
+    return board.flood(index(position.x(), position.y()));
   }
 
-  private ImmutableSet<Position> visit(Tile tile, ImmutableSet<Tile> visited) {
-    var tiles = search(tile);
-    return tiles.map(Tile::position)
-        .appendAll(tiles.difference(visited).flatMap(t -> visit(t, visited.append(tile))));
+  private static byte[] pack(int width, int height, Sequence<Tile> tiles) {
+    var cells = empty(width, height);
+    for (var tile : tiles) {
+      var position = checkInside(width, height, tile.position());
+      cells[position.x() * height + position.y()] = (byte) tile.color().ordinal();
+    }
+    return cells;
   }
 
-  private ImmutableSet<Tile> search(Tile current) {
-    return neighbors(current).filter(current::adjacent);
+  private static Position checkInside(int width, int height, Position position) {
+    if (position.x() < 0 || position.x() >= width || position.y() < 0 || position.y() >= height) {
+      throw new IllegalArgumentException("position outside of the board: " + position);
+    }
+    return position;
+  }
+
+  private static byte[] empty(int width, int height) {
+    var cells = new byte[width * height];
+    Arrays.fill(cells, EMPTY);
+    return cells;
+  }
+
+  private static long zobrist(byte[] cells, int from, int to) {
+    var zobrist = 0L;
+    for (int i = from; i < to; i++) {
+      zobrist ^= key(i, cells[i]);
+    }
+    return zobrist;
+  }
+
+  private static long key(int index, byte cell) {
+    if (cell == EMPTY) {
+      return 0L;
+    }
+    var z = (((long) index << 8) | cell) + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Number of bricks, pairs of adjacent bricks of the same color, Zobrist hash and
+   * whether the board is settled, of a range of cells. Every pair is counted in the
+   * range of its lowest cell, so ranges of whole columns can be counted in parallel
+   * and merged.
+   */
+  private record Counts(int size, int pairs, boolean settled, long zobrist) {
+
+    static Counts of(int height, byte[] cells, int from, int to) {
+      var size = 0;
+      var pairs = 0;
+      var settled = true;
+      var zobrist = 0L;
+      for (int i = from; i < to; i++) {
+        var cell = cells[i];
+        var top = i % height == height - 1;
+        var right = i + height < cells.length;
+        if (cell == EMPTY) {
+          settled &= (top || cells[i + 1] == EMPTY)
+              && (i % height != 0 || !right || cells[i + height] == EMPTY);
+          continue;
+        }
+        size++;
+        zobrist ^= key(i, cell);
+        if (!top && cells[i + 1] == cell) {
+          pairs++;
+        }
+        if (right && cells[i + height] == cell) {
+          pairs++;
+        }
+      }
+      return new Counts(size, pairs, settled, zobrist);
+    }
+
+    Counts merge(Counts other) {
+      return new Counts(size + other.size, pairs + other.pairs,
+          settled && other.settled, zobrist ^ other.zobrist);
+    }
+  }
+
+  private static int pairsAt(int height, byte[] cells, int index) {
+    var cell = cells[index];
+    if (cell == EMPTY) {
+      return 0;
+    }
+    var y = index % height;
+    var pairs = 0;
+    if (y > 0 && cells[index - 1] == cell) {
+      pairs++;
+    }
+    if (y < height - 1 && cells[index + 1] == cell) {
+      pairs++;
+    }
+    if (index >= height && cells[index - height] == cell) {
+      pairs++;
+    }
+    if (index + height < cells.length && cells[index + height] == cell) {
+      pairs++;
+    }
+    return pairs;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof Matrix other
+        && zobrist == other.zobrist
+        && width == other.width
+        && height == other.height
+        && Arrays.equals(cells, other.cells);
   }
 
-  private ImmutableSet<Tile> neighbors(Tile current) {
-    return current.position().neighbors()
-        .map(this::atPosition)
-        .flatMap(Option::sequence);
+  @Override
+  public int hashCode() {
+    return 31 * (31 * width + height) + Long.hashCode(zobrist);
   }
 
+  /**
+   * Prints the board, building bands of rows in parallel for big boards.
+   */
   @Override
-  public final String toString() {
-    var builder = new StringBuilder();
+  public String toString() {
+    var label = labelWidth(height);
+    var builder = new StringBuilder(width + label + 1);
 
-    builder.append("  ");
-    Range.of(0, width).forEach(builder::append);
+    builder.append(" ".repeat(label));
+    for (int x = 0; x < width; x++) {
+      builder.append(x % 10);
+    }
     builder.append("\n");
 
-    Range.of(0, height).reverse().forEach(y -> {
-      if (y < 10) {
-        builder.append(" ");
+    var rows = Bands.reduce(height, width, (from, to) -> {
+      var band = new StringBuilder();
+      for (int y = height - 1 - from; y > height - 1 - to; y--) {
+        var number = String.valueOf(y);
+        band.append(" ".repeat(label - number.length())).append(number);
+        for (int x = 0; x < width; x++) {
+          band.append(printTile(x, y));
+        }
+        band.append("\n");
       }
-      builder.append(y);
-      Range.of(0, width).forEach(x -> builder.append(printTile(x, y)));
-      builder.append("\n");
-    });
+      return band;
+    }, (top, bottom) -> top.append(bottom));
+
+    return builder.append(rows).toString();
+  }
 
-    return builder.toString();
+  /**
+   * Returns the width of the row numbers printed on the left of the board, enough for
+   * the highest row and never less than two, so the columns are always aligned. Only
+   * the last digit of the column numbers is printed.
+   */
+  static int labelWidth(int height) {
+    return Math.max(2, String.valueOf(height - 1).length());
   }
 
-  private String printTile(Integer x, Integer y) {
-    return atPosition(x, y)
-        .map(tile -> tile.color().toString())
-        .getOrElse(" ");
+  private String printTile(int x, int y) {
+    var cell = cell(x, y);
+    return cell == EMPTY ? " " : Color.of(cell).toString();
   }
 }
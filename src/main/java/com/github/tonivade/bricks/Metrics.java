@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters, latency histograms and allocation estimates of the board operations and
+ * the repaint of the board.
+ *
+ * <p>It is disabled unless the system property {@code bricks.metrics} is true. The
+ * flag is a static final constant, so when it is disabled the JIT removes every
+ * probe. When enabled, {@link #install()} registers an MXBean, and if the property
+ * {@code bricks.metrics.dump} is set, prints a report to the standard error every
+ * that many seconds.</p>
+ *
+ * <p>Bricks fall and columns shift in a single pass over the board, so both are
+ * measured together as {@code COMPACT}, whether they come from a click or from
+ * {@link Matrix#fall()} and {@link Matrix#shift()}.</p>
+ *
+ * <p>Allocations are estimated by the callers from the size of the arrays they
+ * create, so they do not cost a call to the thread MXBean.</p>
+ *
+ * <pre>
+ * var start = Metrics.start();
+ * ...
+ * Metrics.stop(Metrics.Operation.CLEAN, start, bytes);
+ * </pre>
+ */
+public final class Metrics implements MetricsMXBean {
+
+  public static final boolean ENABLED = Boolean.getBoolean("bricks.metrics");
+
+  private static final String OBJECT_NAME = "com.github.tonivade.bricks:type=Metrics";
+  private static final long DUMP_SECONDS = Long.getLong("bricks.metrics.dump", 0L);
+  private static final int ARRAY_HEADER = 16;
+  private static final int OBJECT_ALIGNMENT = 8;
+
+  public enum Operation {
+    ADJACENT, CLEAN, COMPACT, GAME_OVER, PAINT
+  }
+
+  private static final Operation[] OPERATIONS = Operation.values();
+
+  static final Metrics DEFAULT = new Metrics();
+
+  private final Histogram[] latencies = new Histogram[OPERATIONS.length];
+  private final LongAdder[] allocated = new LongAdder[OPERATIONS.length];
+
+  private ScheduledExecutorService scheduler;
+
+  Metrics() {
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      latencies[i] = new Histogram();
+      allocated[i] = new LongAdder();
+    }
+  }
+
+  public static long start() {
+    return ENABLED ? System.nanoTime() : 0L;
+  }
+
+  public static void stop(Operation operation, long start) {
+    stop(operation, start, 0);
+  }
+
+  public static void stop(Operation operation, long start, long bytes) {
+    if (ENABLED) {
+      DEFAULT.record(operation, System.nanoTime() - start, bytes);
+    }
+  }
+
+  /**
+   * Estimated size in bytes of an array of the given length and element size.
+   */
+  public static long array(int length, int elementSize) {
+    var bytes = ARRAY_HEADER + (long) length * elementSize;
+    return (bytes + OBJECT_ALIGNMENT - 1) & -OBJECT_ALIGNMENT;
+  }
+
+  /**
+   * Registers the MXBean and starts the periodic dump, if enabled. It can be called
+   * more than once.
+   */
+  public static synchronized void install() {
+    if (!ENABLED || DEFAULT.scheduler != null) {
+      return;
+    }
+    try {
+      var server = ManagementFactory.getPlatformMBeanServer();
+      var name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(DEFAULT, name);
+      }
+    } catch (JMException e) {
+      System.err.println("cannot register metrics: " + e);
+    }
+    DEFAULT.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "metrics-dump");
+      thread.setDaemon(true);
+      return thread;
+    });
+    if (DUMP_SECONDS > 0) {
+      DEFAULT.dump(DUMP_SECONDS, System.err::print);
+    }
+  }
+
+  void record(Operation operation, long nanos, long bytes) {
+    var i = operation.ordinal();
+    latencies[i].record(nanos);
+    if (bytes > 0) {
+      allocated[i].add(bytes);
+    }
+  }
+
+  void dump(long seconds, Consumer<String> output) {
+    checkNonNull(output);
+    scheduler.scheduleAtFixedRate(() -> output.accept(getReport()), seconds, seconds, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return ENABLED;
+  }
+
+  @Override
+  public String[] getOperations() {
+    var operations = new String[OPERATIONS.length];
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      operations[i] = OPERATIONS[i].name();
+    }
+    return operations;
+  }
+
+  @Override
+  public long[] getCounts() {
+    var counts = new long[OPERATIONS.length];
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      counts[i] = latencies[i].count();
+    }
+    return counts;
+  }
+
+  @Override
+  public double[] getMeanNanos() {
+    var means = new double[OPERATIONS.length];
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      means[i] = latencies[i].mean();
+    }
+    return means;
+  }
+
+  @Override
+  public long[] getP50Nanos() {
+    return percentile(50);
+  }
+
+  @Override
+  public long[] getP99Nanos() {
+    return percentile(99);
+  }
+
+  @Override
+  public long[] getMaxNanos() {
+    var max = new long[OPERATIONS.length];
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      max[i] = latencies[i].max();
+    }
+    return max;
+  }
+
+  @Override
+  public long[] getAllocatedBytes() {
+    var bytes = new long[OPERATIONS.length];
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      bytes[i] = allocated[i].sum();
+    }
+    return bytes;
+  }
+
+  @Override
+  public String getReport() {
+    var report = new StringBuilder();
+    report.append(String.format("%-10s %10s %10s %10s %10s %10s %12s%n",
+        "operation", "count", "mean ns", "p50 ns", "p99 ns", "max ns", "bytes"));
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      var latency = latencies[i];
+      report.append(String.format("%-10s %10d %10.0f %10d %10d %10d %12d%n",
+          OPERATIONS[i], latency.count(), latency.mean(), latency.percentile(50),
+          latency.percentile(99), latency.max(), allocated[i].sum()));
+    }
+    return report.toString();
+  }
+
+  @Override
+  public void reset() {
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      latencies[i].reset();
+      allocated[i].reset();
+    }
+  }
+
+  private long[] percentile(double percentile) {
+    var values = new long[OPERATIONS.length];
+    for (int i = 0; i < OPERATIONS.length; i++) {
+      values[i] = latencies[i].percentile(percentile);
+    }
+    return values;
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+/**
+ * Management interface of {@link Metrics}, registered as
+ * {@code com.github.tonivade.bricks:type=Metrics}. Every array has one element per
+ * operation, in the order of {@link #getOperations()}.
+ */
+public interface MetricsMXBean {
+
+  boolean isEnabled();
+
+  String[] getOperations();
+
+  long[] getCounts();
+
+  double[] getMeanNanos();
+
+  long[] getP50Nanos();
+
+  long[] getP99Nanos();
+
+  long[] getMaxNanos();
+
+  long[] getAllocatedBytes();
+
+  String getReport();
+
+  void reset();
+}
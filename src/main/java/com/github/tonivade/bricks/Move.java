@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.type.Option;
+
+/**
+ * What happened when a position was clicked: the size and color of the group at the
+ * position, the tiles removed, the columns emptied and shifted, whether the board was
+ * cleared, and the nanoseconds spent removing the group and compacting the board.
+ *
+ * <p>A group of {@code n} tiles scores {@code (n - 2)²} points, and clearing the board
+ * scores {@link #CLEAR_BONUS} more.</p>
+ */
+public record Move(
+    Position position, Option<Color> color, int size, int removed, int columns, boolean cleared,
+    long cleanNanos, long compactNanos) {
+
+  public static final int CLEAR_BONUS = 1000;
+
+  public Move {
+    checkNonNull(position);
+    checkNonNull(color);
+  }
+
+  public int score() {
+    if (removed < 2) {
+      return 0;
+    }
+    var points = (removed - 2) * (removed - 2);
+    return cleared ? points + CLEAR_BONUS : points;
+  }
+}
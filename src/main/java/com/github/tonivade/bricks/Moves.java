@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+/**
+ * Receives the bricks moved by a fall or a shift of a {@link Matrix}, as pairs of
+ * column-major cell indexes, {@code x * height + y}, before and after the move.
+ * Each brick is reported once with its final cell, so it can be used to animate
+ * the transition between two boards.
+ */
+@FunctionalInterface
+public interface Moves {
+
+  void moved(int from, int to);
+
+  static Moves none() {
+    return (_, _) -> {};
+  }
+}
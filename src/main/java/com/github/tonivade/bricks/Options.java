@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Size of the board and number of colors of the games, and memory budget of the undo
+ * history in megabytes, read from the command line with {@code --width},
+ * {@code --height}, {@code --colors} and {@code --history}. Any other argument is kept
+ * in order for the front end.
+ *
+ * <p>Games are dealt by {@link Deals}, so boards need at least two rows and between
+ * three and sixteen colors.</p>
+ *
+ * <p>The pool of deals keeps fewer deals as the boards grow, so big boards do not
+ * fill the memory with deals that are never played.</p>
+ */
+record Options(int width, int height, int colors, long history, List<String> arguments) {
+
+  static final Options DEFAULT = new Options(10, 15, Color.DEFAULT_COLORS, History.DEFAULT_BUDGET, List.of());
+
+  private static final long MEGABYTE = 1L << 20;
+
+  private static final int POOL_CAPACITY = 16;
+  private static final long POOL_TILES = 1L << 16;
+
+  Options {
+    checkPositive(width);
+    if (height < Deals.MIN_HEIGHT) {
+      throw new IllegalArgumentException("height should be at least " + Deals.MIN_HEIGHT + ": " + height);
+    }
+    if (colors < Deals.MIN_COLORS || colors > Color.MAX_COLORS) {
+      throw new IllegalArgumentException(
+          "colors should be between " + Deals.MIN_COLORS + " and " + Color.MAX_COLORS + ": " + colors);
+    }
+    if (history <= 0) {
+      throw new IllegalArgumentException("history should be positive: " + history);
+    }
+    arguments = List.copyOf(checkNonNull(arguments));
+  }
+
+  static Options parse(String... args) {
+    var width = DEFAULT.width();
+    var height = DEFAULT.height();
+    var colors = DEFAULT.colors();
+    var history = DEFAULT.history();
+    var arguments = new ArrayList<String>();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--width" -> width = value(args, ++i);
+        case "--height" -> height = value(args, ++i);
+        case "--colors" -> colors = value(args, ++i);
+        case "--history" -> history = value(args, ++i) * MEGABYTE;
+        default -> arguments.add(args[i]);
+      }
+    }
+    return new Options(width, height, colors, history, arguments);
+  }
+
+  Matrix empty() {
+    return new Matrix(width, height);
+  }
+
+  History history(Matrix initial) {
+    return new History(initial, history, History.DEFAULT_INTERVAL);
+  }
+
+  Deals deals() {
+    return new Deals(width, height, colors);
+  }
+
+  DealPool pool() {
+    return new DealPool(deals(), capacity(), 1, new SplittableRandom());
+  }
+
+  int capacity() {
+    return (int) Math.max(1, Math.min(POOL_CAPACITY, POOL_TILES / ((long) width * height)));
+  }
+
+  private static int value(String[] args, int i) {
+    if (i >= args.length) {
+      throw new IllegalArgumentException("missing value for " + args[i - 1]);
+    }
+    return Integer.parseInt(args[i]);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.random.RandomGenerator;
+
+import com.github.tonivade.purefun.type.Option;
+
+/**
+ * Chooses the next position to click in a board, or none if there is no group
+ * left to click.
+ */
+@FunctionalInterface
+public interface Policy {
+
+  Option<Position> next(Matrix matrix, RandomGenerator random);
+
+  static Policy random() {
+    return (matrix, random) -> {
+      var playable = matrix.groups().playable();
+      if (playable.isEmpty()) {
+        return Option.none();
+      }
+      return Option.some(playable.get(random.nextInt(playable.size())));
+    };
+  }
+
+  static Policy greedy() {
+    return (matrix, _) -> {
+      var groups = matrix.groups();
+      var largest = groups.largest();
+      if (largest < 0 || groups.size(largest) < 2) {
+        return Option.none();
+      }
+      return Option.some(groups.position(largest));
+    };
+  }
+
+  /**
+   * Chooses the group that leaves more groups to click after it, preferring the
+   * clicks that clear the board and then the largest groups.
+   */
+  static Policy mobility() {
+    return (matrix, _) -> {
+      var groups = matrix.groups();
+      Position best = null;
+      var bestMoves = -1;
+      var bestSize = 0;
+      for (var position : groups.playable()) {
+        var next = Matrix.clickS(position).runS(matrix);
+        var moves = next.isEmpty() ? Integer.MAX_VALUE : next.groups().playable().size();
+        var size = groups.size(groups.label(position));
+        if (moves > bestMoves || (moves == bestMoves && size > bestSize)) {
+          best = position;
+          bestMoves = moves;
+          bestSize = size;
+        }
+      }
+      return Option.of(best);
+    };
+  }
+
+  /**
+   * Chooses the first click of the best sequence of clicks found by the solver.
+   */
+  static Policy lookahead(Solver solver) {
+    checkNonNull(solver);
+    return (matrix, _) -> {
+      var clicks = solver.solve(matrix).clicks();
+      return clicks.isEmpty() ? Option.none() : Option.some(clicks.get(0));
+    };
+  }
+}
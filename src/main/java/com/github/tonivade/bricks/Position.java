@@ -6,37 +6,96 @@ package com.github.tonivade.bricks;
 
 import static com.github.tonivade.purefun.data.Sequence.setOf;
 
+import java.util.function.IntConsumer;
+
 import com.github.tonivade.purefun.data.ImmutableSet;
 
 public record Position(int x, int y) {
 
+  private static final int CACHE = 128;
+  private static final Position[] POSITIONS = new Position[(CACHE + 1) * (CACHE + 1)];
+
+  /**
+   * Returns a position, reusing a cached instance for small coordinates, from -1 up to
+   * 127, the same way {@link Integer#valueOf(int)} does.
+   */
+  public static Position of(int x, int y) {
+    if (x < -1 || x >= CACHE || y < -1 || y >= CACHE) {
+      return new Position(x, y);
+    }
+    var index = (x + 1) * (CACHE + 1) + y + 1;
+    var position = POSITIONS[index];
+    if (position == null) {
+      position = POSITIONS[index] = new Position(x, y);
+    }
+    return position;
+  }
+
   public ImmutableSet<Position> neighbors() {
     return setOf(up(), down(), right(), left());
   }
 
   public Position up() {
-    return new Position(x, y + 1);
+    return of(x, y + 1);
   }
 
   public Position down() {
-    return new Position(x, y - 1);
+    return of(x, y - 1);
   }
 
   public Position right() {
-    return new Position(x + 1, y);
+    return of(x + 1, y);
   }
 
   public Position left() {
-    return new Position(x - 1, y);
+    return of(x - 1, y);
   }
 
   public double distance(Position other) {
     int diffx = this.x - other.x;
     int diffy = this.y - other.y;
-    return Math.sqrt(Math.pow(diffx, 2) + Math.pow(diffy, 2));
+    return Math.sqrt(diffx * diffx + diffy * diffy);
   }
 
   public boolean adjacent(Position other) {
-    return distance(other) == 1.;
+    return Math.abs(this.x - other.x) + Math.abs(this.y - other.y) == 1;
+  }
+
+  /**
+   * Calls the action with the column-major index, {@code x * height + y}, of each
+   * neighbor inside a board of the given size, in the same order as {@link #neighbors()},
+   * without allocating any position.
+   */
+  public void neighbors(int width, int height, IntConsumer action) {
+    if (x >= 0 && x < width && y >= 0 && y < height) {
+      neighbors(x * height + y, width, height, action);
+      return;
+    }
+    visit(x, y + 1, width, height, action);
+    visit(x, y - 1, width, height, action);
+    visit(x + 1, y, width, height, action);
+    visit(x - 1, y, width, height, action);
+  }
+
+  static void neighbors(int index, int width, int height, IntConsumer action) {
+    var y = index % height;
+    if (y < height - 1) {
+      action.accept(index + 1);
+    }
+    if (y > 0) {
+      action.accept(index - 1);
+    }
+    if (index + height < width * height) {
+      action.accept(index + height);
+    }
+    if (index >= height) {
+      action.accept(index - height);
+    }
+  }
+
+  private static void visit(int x, int y, int width, int height, IntConsumer action) {
+    if (x >= 0 && x < width && y >= 0 && y < height) {
+      action.accept(x * height + y);
+    }
   }
 }
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+/**
+ * A recorded game, the initial board and the positions clicked.
+ */
+public record Replay(Matrix matrix, ImmutableArray<Position> clicks) {
+
+  public Replay {
+    checkNonNull(matrix);
+    checkNonNull(clicks);
+  }
+
+  public Matrix play() {
+    var current = matrix;
+    for (var click : clicks) {
+      current = Matrix.clickS(click).runS(current);
+    }
+    return current;
+  }
+}
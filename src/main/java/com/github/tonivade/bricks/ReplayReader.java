@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the replays written by a {@link ReplayWriter}, one at a time.
+ *
+ * <p>The file is memory mapped in windows, so replays are decoded straight from the
+ * page cache and a corpus bigger than the memory can be read without loading it. A
+ * new window is mapped, starting at the current replay, only when the replay does
+ * not fit in the current one.</p>
+ */
+public final class ReplayReader implements Closeable, Iterator<Replay> {
+
+  private static final int WINDOW = 1 << 26;
+  private static final int MAX_VARINT = 5;
+
+  private final FileChannel channel;
+  private final long size;
+  private final int window;
+
+  private MappedByteBuffer buffer;
+  private long offset;
+
+  public ReplayReader(Path path) throws IOException {
+    this(path, WINDOW);
+  }
+
+  ReplayReader(Path path, int window) throws IOException {
+    this.channel = FileChannel.open(checkNonNull(path), StandardOpenOption.READ);
+    this.size = channel.size();
+    this.window = checkPositive(window);
+    map(0, ReplayWriter.MAGIC.length);
+    var magic = new byte[ReplayWriter.MAGIC.length];
+    if (size < magic.length || !Arrays.equals(ReplayWriter.MAGIC, read(magic))) {
+      channel.close();
+      throw new IOException("not a replay file: " + path);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return offset + buffer.position() < size;
+  }
+
+  @Override
+  public Replay next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return read();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException e) {
+      throw new IllegalStateException("corrupted replay at " + (offset + buffer.position()), e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private Replay read() throws IOException {
+    ensure(MAX_VARINT * 2 + 1);
+    var width = varint();
+    var height = varint();
+    var header = buffer.get() & 0xFF;
+    var bits = header & ~ReplayWriter.HAS_EMPTY;
+    var bias = (header & ReplayWriter.HAS_EMPTY) != 0 ? 1 : 0;
+    if (bits < 1 || bits > Byte.SIZE - 1) {
+      throw new IllegalArgumentException("invalid bits per cell: " + bits);
+    }
+
+    var cells = new byte[Math.multiplyExact(checkPositive(width), checkPositive(height))];
+    ensure(((long) cells.length * bits + Byte.SIZE - 1) / Byte.SIZE + MAX_VARINT);
+    var mask = (1 << bits) - 1;
+    var pending = 0L;
+    var count = 0;
+    for (int i = 0; i < cells.length; i++) {
+      if (count < bits) {
+        pending |= (long) (buffer.get() & 0xFF) << count;
+        count += Byte.SIZE;
+      }
+      cells[i] = (byte) ((pending & mask) - bias);
+      pending >>>= bits;
+      count -= bits;
+    }
+
+    var length = varint();
+    if (length > size - offset - buffer.position()) {
+      throw new IllegalArgumentException("invalid number of clicks: " + length);
+    }
+    var clicks = new Position[length];
+    ensure((long) clicks.length * MAX_VARINT);
+    for (int i = 0; i < clicks.length; i++) {
+      var index = varint();
+      if (index >= cells.length) {
+        throw new IllegalArgumentException("click outside of the board: " + index);
+      }
+      clicks[i] = Position.of(index / height, index % height);
+    }
+    return new Replay(Matrix.of(width, height, cells), arrayOf(clicks));
+  }
+
+  private byte[] read(byte[] bytes) {
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private int varint() {
+    var value = 0;
+    for (int shift = 0; shift < MAX_VARINT * 7; shift += 7) {
+      var b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        if (value < 0) {
+          throw new IllegalArgumentException("invalid varint");
+        }
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("invalid varint");
+  }
+
+  private void ensure(long bytes) throws IOException {
+    if (buffer.remaining() < bytes && offset + buffer.limit() < size) {
+      map(offset + buffer.position(), bytes);
+    }
+  }
+
+  private void map(long from, long bytes) throws IOException {
+    var length = Math.min(size - from, Math.max(window, bytes));
+    if (length > Integer.MAX_VALUE) {
+      throw new IOException("replay too big: " + bytes);
+    }
+    offset = from;
+    buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+  }
+}
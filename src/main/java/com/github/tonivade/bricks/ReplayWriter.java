@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes replays to a file in a compact binary format.
+ *
+ * <p>The file starts with the magic bytes {@code BRK1}, followed by the replays one
+ * after the other. Each replay is written as:</p>
+ *
+ * <ul>
+ * <li>the width and the height of the board, as unsigned varints</li>
+ * <li>one byte with the number of bits of each cell, with the high bit set if the
+ * board has empty cells</li>
+ * <li>the cells in column-major order, packed from the lowest bit, holding the
+ * ordinal of the color, plus one if the board has empty cells so zero is empty</li>
+ * <li>the number of clicks, as an unsigned varint</li>
+ * <li>the index of each click, {@code x * height + y}, as an unsigned varint</li>
+ * </ul>
+ *
+ * <p>A full board of four colors takes two bits per cell.</p>
+ */
+public final class ReplayWriter implements Closeable {
+
+  static final byte[] MAGIC = { 'B', 'R', 'K', '1' };
+  static final int HAS_EMPTY = 0x80;
+
+  private final OutputStream output;
+
+  private byte[] buffer = new byte[256];
+  private int length;
+
+  public ReplayWriter(Path path) throws IOException {
+    this.output = new BufferedOutputStream(Files.newOutputStream(checkNonNull(path)));
+    this.output.write(MAGIC);
+  }
+
+  public void write(Replay replay) throws IOException {
+    checkNonNull(replay);
+    var matrix = replay.matrix();
+    var width = matrix.width();
+    var height = matrix.height();
+    var full = matrix.size() == width * height;
+    var bias = full ? 0 : 1;
+    var max = 0;
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        max = Math.max(max, matrix.cell(x, y) + bias);
+      }
+    }
+    var bits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(max));
+
+    length = 0;
+    varint(width);
+    varint(height);
+    put(full ? bits : bits | HAS_EMPTY);
+
+    var pending = 0L;
+    var count = 0;
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        pending |= (long) (matrix.cell(x, y) + bias) << count;
+        count += bits;
+        for (; count >= Byte.SIZE; count -= Byte.SIZE) {
+          put((int) pending);
+          pending >>>= Byte.SIZE;
+        }
+      }
+    }
+    if (count > 0) {
+      put((int) pending);
+    }
+
+    varint(replay.clicks().size());
+    for (var click : replay.clicks()) {
+      if (!matrix.inside(click.x(), click.y())) {
+        throw new IllegalArgumentException("click outside of the board: " + click);
+      }
+      varint(matrix.index(click));
+    }
+    output.write(buffer, 0, length);
+  }
+
+  @Override
+  public void close() throws IOException {
+    output.close();
+  }
+
+  private void varint(int value) {
+    while ((value & ~0x7F) != 0) {
+      put((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    put(value);
+  }
+
+  private void put(int value) {
+    if (length == buffer.length) {
+      buffer = Arrays.copyOf(buffer, length * 2);
+    }
+    buffer[length++] = (byte) value;
+  }
+}
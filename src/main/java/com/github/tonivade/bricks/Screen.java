@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.Arrays;
+
+/**
+ * Renders boards in an ANSI terminal.
+ *
+ * <p>The first board, or a board of a different size, is drawn as a full frame with
+ * the same layout as {@link Matrix#toString()}. After that the last frame is kept and
+ * only the cells that changed are written, moving the cursor to each run of changed
+ * cells and emitting a color sequence only when the color changes along the run.</p>
+ *
+ * <p>After each frame the cursor is left below the board and the rest of the screen
+ * is cleared, so any text printed after the board replaces the previous one.</p>
+ */
+final class Screen {
+
+  private static final String ESC = "\033[";
+  private static final String RESET = ESC + "0m";
+  private static final int TOP = 2;
+
+  private final StringBuilder builder = new StringBuilder();
+
+  private byte[] frame;
+  private int width;
+  private int height;
+  private int left;
+
+  String render(Matrix matrix) {
+    checkNonNull(matrix);
+    builder.setLength(0);
+    if (frame == null || width != matrix.width() || height != matrix.height()) {
+      width = matrix.width();
+      height = matrix.height();
+      left = Matrix.labelWidth(height) + 1;
+      frame = new byte[width * height];
+      Arrays.fill(frame, Matrix.EMPTY);
+      full(matrix);
+    } else {
+      update(matrix);
+    }
+    moveTo(TOP + height, 1);
+    builder.append(ESC).append('J');
+    return builder.toString();
+  }
+
+  private void full(Matrix matrix) {
+    builder.append(ESC).append('H').append(ESC).append("2J");
+    builder.append(" ".repeat(left - 1));
+    for (int x = 0; x < width; x++) {
+      builder.append(x % 10);
+    }
+    builder.append('\n');
+    for (int y = height - 1; y >= 0; y--) {
+      var number = String.valueOf(y);
+      builder.append(" ".repeat(left - 1 - number.length())).append(number);
+      var current = Matrix.EMPTY;
+      for (int x = 0; x < width; x++) {
+        var cell = matrix.cell(x, y);
+        current = paint(cell, current);
+        frame[matrix.index(x, y)] = cell;
+      }
+      if (current != Matrix.EMPTY) {
+        builder.append(RESET);
+      }
+      builder.append('\n');
+    }
+  }
+
+  private void update(Matrix matrix) {
+    for (int y = height - 1; y >= 0; y--) {
+      var current = Matrix.EMPTY;
+      var last = -2;
+      for (int x = 0; x < width; x++) {
+        var index = matrix.index(x, y);
+        var cell = matrix.cell(x, y);
+        if (cell == frame[index]) {
+          continue;
+        }
+        if (x != last + 1) {
+          moveTo(TOP + height - 1 - y, left + x);
+        }
+        current = paint(cell, current);
+        frame[index] = cell;
+        last = x;
+      }
+      if (current != Matrix.EMPTY) {
+        builder.append(RESET);
+      }
+    }
+  }
+
+  private byte paint(byte cell, byte current) {
+    if (cell != current) {
+      builder.append(cell == Matrix.EMPTY ? RESET : Color.of(cell).background());
+    }
+    builder.append(' ');
+    return cell;
+  }
+
+  private void moveTo(int line, int column) {
+    builder.append(ESC).append(line).append(';').append(column).append('H');
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Headless self-play of complete games.
+ *
+ * <p>Every game starts from a board generated from its own seed, derived from the
+ * seed of the simulation and the number of the game, so the results do not depend
+ * on how the games are distributed between the threads of the pool.</p>
+ */
+public final class Simulation {
+
+  private final int width;
+  private final int height;
+  private final int colors;
+  private final Policy policy;
+
+  public Simulation(int width, int height, int colors, Policy policy) {
+    this.width = checkPositive(width);
+    this.height = checkPositive(height);
+    this.colors = Color.checkColors(colors);
+    this.policy = checkNonNull(policy);
+  }
+
+  public Stats run(int games, long seed) {
+    return run(games, seed, ForkJoinPool.commonPool());
+  }
+
+  public Stats run(int games, long seed, ForkJoinPool pool) {
+    return pool.submit(() -> IntStream.range(0, checkPositive(games)).parallel()
+        .mapToObj(game -> play(seed(seed, game)))
+        .reduce(Stats.empty(), Stats::merge)).join();
+  }
+
+  public Stats play(long seed) {
+    var start = System.nanoTime();
+    var random = new SplittableRandom(seed);
+    var matrix = new Matrix(width, height).shuffle(random.nextLong(), colors);
+    var moves = 0;
+    while (!matrix.gameOver()) {
+      var next = policy.next(matrix, random);
+      if (next.isEmpty()) {
+        break;
+      }
+      matrix = Matrix.clickS(next.getOrElseThrow()).runS(matrix);
+      moves++;
+    }
+    return new Stats(1, matrix.isEmpty() ? 1 : 0, moves, matrix.size(), System.nanoTime() - start);
+  }
+
+  private static long seed(long seed, int game) {
+    return seed + game * 0x9E3779B97F4A7C15L;
+  }
+
+  public record Stats(int games, int wins, long moves, long tiles, long nanos) {
+
+    public static Stats empty() {
+      return new Stats(0, 0, 0, 0, 0);
+    }
+
+    public Stats merge(Stats other) {
+      return new Stats(
+          games + other.games,
+          wins + other.wins,
+          moves + other.moves,
+          tiles + other.tiles,
+          nanos + other.nanos);
+    }
+
+    public double winRate() {
+      return games == 0 ? 0. : (double) wins / games;
+    }
+
+    public double averageMoves() {
+      return games == 0 ? 0. : (double) moves / games;
+    }
+
+    public double averageTiles() {
+      return games == 0 ? 0. : (double) tiles / games;
+    }
+
+    public Duration averageTime() {
+      return games == 0 ? Duration.ZERO : Duration.ofNanos(nanos / games);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d games, win rate %.2f%%, %.2f moves, %.2f tiles left, %s per game",
+          games, winRate() * 100, averageMoves(), averageTiles(), averageTime());
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+/**
+ * Beam search of click sequences that clear a board, or at least leave the
+ * fewest tiles possible.
+ *
+ * <p>Boards reached by different click orders are discarded using a bounded
+ * transposition table of Zobrist hashes, and boards that cannot improve the best
+ * solution found so far are pruned, a color with a single tile left can never be
+ * removed.</p>
+ *
+ * <p>The next level of the beam is kept in a bounded heap while the current one is
+ * expanded, so every child that is not better than the worst one in the heap is
+ * discarded as soon as it is scored, and at most {@code beam} boards of each level
+ * are alive at once. Nodes only keep the clicks of their parents, not their boards.</p>
+ */
+public final class Solver {
+
+  private static final int DEFAULT_BEAM = 100;
+  private static final int DEFAULT_TABLE_BITS = 18;
+
+  private static final Comparator<Node> BEST_FIRST =
+      Comparator.comparingInt(Node::score).thenComparingInt(Node::order);
+
+  private final int beam;
+  private final int tableBits;
+
+  public Solver() {
+    this(DEFAULT_BEAM, DEFAULT_TABLE_BITS);
+  }
+
+  public Solver(int beam, int tableBits) {
+    this.beam = checkPositive(beam);
+    this.tableBits = checkPositive(tableBits);
+  }
+
+  public Solution solve(Matrix matrix) {
+    checkNonNull(matrix);
+    var table = new TranspositionTable(tableBits);
+    table.visit(matrix);
+
+    var best = new Node(matrix, null, 0, 0);
+    List<Node> current = List.of(best);
+    while (!current.isEmpty() && !best.matrix().isEmpty()) {
+      var next = new PriorityQueue<Node>(beam + 1, BEST_FIRST.reversed());
+      var order = 0;
+      for (var node : current) {
+        if (lowerBound(node.matrix()) >= best.matrix().size()) {
+          continue;
+        }
+        for (var click : node.matrix().groups().playable()) {
+          var child = Matrix.clickS(click).runS(node.matrix());
+          if (table.visit(child)) {
+            var childNode = new Node(child, new Path(node.path(), click), score(child), order++);
+            if (child.size() < best.matrix().size()) {
+              best = childNode;
+            }
+            if (next.size() < beam) {
+              next.add(childNode);
+            } else if (BEST_FIRST.compare(childNode, next.peek()) < 0) {
+              next.poll();
+              next.add(childNode);
+            }
+          }
+        }
+      }
+      var sorted = new ArrayList<>(next);
+      sorted.sort(BEST_FIRST);
+      current = sorted;
+    }
+    return best.solution();
+  }
+
+  public record Solution(ImmutableArray<Position> clicks, Matrix matrix) {
+
+    public boolean solved() {
+      return matrix.isEmpty();
+    }
+  }
+
+  private record Path(Path parent, Position click) {}
+
+  private record Node(Matrix matrix, Path path, int score, int order) {
+
+    Solution solution() {
+      var clicks = new ArrayList<Position>();
+      for (var step = path; step != null; step = step.parent()) {
+        clicks.add(step.click());
+      }
+      Collections.reverse(clicks);
+      return new Solution(arrayOf(clicks.toArray(Position[]::new)), matrix);
+    }
+  }
+
+  private static int score(Matrix matrix) {
+    return 4 * matrix.size() - matrix.pairs() + 16 * lowerBound(matrix);
+  }
+
+  private static int lowerBound(Matrix matrix) {
+    var counts = new int[Color.values().length];
+    for (int x = 0; x < matrix.width(); x++) {
+      for (int y = 0; y < matrix.height(); y++) {
+        var cell = matrix.cell(x, y);
+        if (cell != Matrix.EMPTY) {
+          counts[cell]++;
+        }
+      }
+    }
+    var bound = 0;
+    for (var count : counts) {
+      if (count == 1) {
+        bound++;
+      }
+    }
+    return bound;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+/**
+ * Bounded, direct mapped set of Zobrist hashes. When two boards fall in the same
+ * slot the newest one replaces the oldest, so memory never grows beyond the
+ * initial table.
+ */
+final class TranspositionTable {
+
+  private final long[] keys;
+  private final int mask;
+
+  TranspositionTable(int bits) {
+    checkPositive(bits);
+    if (bits > 30) {
+      throw new IllegalArgumentException("table too big: " + bits);
+    }
+    this.keys = new long[1 << bits];
+    this.mask = keys.length - 1;
+  }
+
+  /**
+   * Returns true if the board has not been seen before, and remembers it.
+   */
+  boolean visit(Matrix matrix) {
+    var key = matrix.zobrist() | 1L;
+    var slot = (int) (key ^ (key >>> 32)) & mask;
+    if (keys[slot] == key) {
+      return false;
+    }
+    keys[slot] = key;
+    return true;
+  }
+}
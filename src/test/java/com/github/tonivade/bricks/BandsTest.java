@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.Test;
+
+class BandsTest {
+
+  @Test
+  void shouldNotSplitSmallBoards() {
+    assertArrayEquals(new int[] { 0, 10 }, Bands.bounds(10, 15));
+    assertEquals(10, Bands.lines(10, 15));
+  }
+
+  @Test
+  void shouldCoverAllLinesOfBigBoards() {
+    var bounds = Bands.bounds(1000, 1000);
+    System.out.println((bounds.length - 1) + " bands");
+
+    assertEquals(0, bounds[0]);
+    assertEquals(1000, bounds[bounds.length - 1]);
+    for (int i = 1; i < bounds.length; i++) {
+      assertTrue(bounds[i] > bounds[i - 1]);
+    }
+
+    var visited = new AtomicIntegerArray(1000);
+    Bands.forEach(bounds, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        visited.incrementAndGet(i);
+      }
+      return null;
+    });
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(1, visited.get(i));
+    }
+  }
+
+  @Test
+  void shouldMergeBandsInOrder() {
+    var result = Bands.reduce(1000, 1000, (from, to) -> {
+      var builder = new StringBuilder();
+      for (int i = from; i < to; i++) {
+        builder.append(i).append(',');
+      }
+      return builder;
+    }, (left, right) -> left.append(right));
+
+    var expected = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      expected.append(i).append(',');
+    }
+    assertEquals(expected.toString(), result.toString());
+  }
+}
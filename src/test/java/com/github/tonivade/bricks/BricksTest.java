@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class BricksTest {
+
+  @Test
+  void shouldReplaySolutionInBatchMode() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var input = new StringBuilder();
+    for (var position : deal.solution()) {
+      input.append(position.x()).append('\n').append(position.y()).append('\n');
+    }
+    input.append("n\n");
+
+    var summary = Bricks.batch(new BufferedReader(new StringReader(input.toString())), 42L)
+        .loop(new Matrix(10, 15)).unsafeRunSync();
+
+    System.out.println(summary);
+    assertEquals(1, summary.games());
+    assertEquals(1, summary.wins());
+    assertEquals(deal.solution().size(), summary.moves());
+    assertEquals(0, summary.tiles());
+  }
+
+  @Test
+  void shouldStopAtEndOfInput() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var first = deal.solution().get(0);
+    var input = "a\n1\n" + first.x() + "\n" + first.y() + "\n";
+
+    var summary = Bricks.batch(new BufferedReader(new StringReader(input)), 42L)
+        .loop(new Matrix(10, 15)).unsafeRunSync();
+
+    System.out.println(summary);
+    assertEquals(1, summary.games());
+    assertEquals(0, summary.wins());
+    assertEquals(1, summary.moves());
+    assertEquals(Matrix.clickS(first).runS(deal.matrix()).size(), summary.tiles());
+  }
+
+  @Test
+  void shouldUndoAndRedoMoves() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var input = new StringBuilder();
+    for (var position : deal.solution()) {
+      if (!input.isEmpty()) {
+        input.append("u\nr\n");
+      }
+      input.append(position.x()).append('\n').append(position.y()).append('\n');
+    }
+    input.append("n\n");
+
+    var summary = Bricks.batch(new BufferedReader(new StringReader(input.toString())), 42L)
+        .loop(new Matrix(10, 15)).unsafeRunSync();
+
+    System.out.println(summary);
+    assertEquals(1, summary.games());
+    assertEquals(1, summary.wins());
+    assertEquals(deal.solution().size(), summary.moves());
+  }
+}
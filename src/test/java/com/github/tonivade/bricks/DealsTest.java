@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class DealsTest {
+
+  @Test
+  void shouldGenerateFullBoardsThatCanBeCleared() {
+    var deals = new Deals(10, 15, 4);
+    var random = new SplittableRandom(42);
+
+    for (int i = 0; i < 20; i++) {
+      var deal = deals.generate(random);
+      var matrix = deal.matrix();
+      assertEquals(150, matrix.size());
+
+      for (var click : deal.solution()) {
+        assertTrue(matrix.adjacent(click).size() > 1);
+        matrix = Matrix.clickS(click).runS(matrix);
+      }
+      assertTrue(matrix.isEmpty());
+    }
+  }
+
+  @Test
+  void shouldGenerateBigBoardsWithMoreColors() {
+    var deal = new Deals(200, 150, 8).generate(new SplittableRandom(42));
+    var matrix = deal.matrix();
+    assertEquals(200 * 150, matrix.size());
+
+    for (var click : deal.solution()) {
+      matrix = Matrix.clickS(click).runS(matrix);
+    }
+    System.out.println(deal.solution().size() + " clicks");
+    assertTrue(matrix.isEmpty());
+  }
+
+  @Test
+  void shouldBeReproducibleFromSeed() {
+    var deals = new Deals(10, 15, 3);
+
+    assertEquals(deals.generate(new SplittableRandom(1)), deals.generate(new SplittableRandom(1)));
+  }
+
+  @Test
+  void shouldNotGenerateWithLessThanThreeColors() {
+    assertThrows(IllegalArgumentException.class, () -> new Deals(10, 15, 2));
+  }
+
+  @Test
+  void shouldNotGenerateWithMoreColorsThanThePalette() {
+    assertEquals(Color.MAX_COLORS, Color.values().length);
+    assertThrows(IllegalArgumentException.class, () -> new Deals(10, 15, Color.MAX_COLORS + 1));
+  }
+
+  @Test
+  void shouldTakeDealsFromPool() {
+    try (var pool = new DealPool(new Deals(5, 5, 4), 4, 2, new SplittableRandom(1))) {
+      for (int i = 0; i < 10; i++) {
+        assertEquals(25, pool.take().matrix().size());
+      }
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class GroupsTest {
+
+  @Test
+  void shouldLabelAllGroups() {
+    var matrix = new Matrix(3, 3,
+        arrayOf(new Tile(new Position(0, 0), Color.RED),
+                new Tile(new Position(0, 1), Color.RED),
+                new Tile(new Position(1, 0), Color.BLUE),
+                new Tile(new Position(2, 0), Color.RED),
+                new Tile(new Position(1, 1), Color.RED),
+                new Tile(new Position(2, 1), Color.RED)));
+
+    var groups = matrix.groups();
+
+    assertEquals(2, groups.count());
+    assertEquals(5, groups.size(groups.label(new Position(2, 0))));
+    assertEquals(Color.BLUE, groups.color(groups.label(new Position(1, 0))));
+    assertEquals(-1, groups.label(new Position(2, 2)));
+    assertEquals(-1, groups.label(new Position(3, 0)));
+    assertEquals(new Position(0, 0), groups.position(groups.largest()));
+    assertEquals(arrayOf(new Position(0, 0)), groups.playable());
+  }
+
+  @Test
+  void shouldMatchAdjacentTiles() {
+    var random = new Random(11);
+    var matrix = new Matrix(40, 30).shuffle(_ -> Color.values()[random.nextInt(4)]);
+
+    var groups = matrix.groups();
+
+    for (var position : matrix.positions()) {
+      var group = groups.label(position);
+      var adjacent = matrix.adjacent(position);
+      assertEquals(groups.size(group) > 1 ? groups.size(group) : 0, adjacent.size());
+      for (var other : adjacent) {
+        assertEquals(group, groups.label(other));
+      }
+    }
+  }
+
+  @Test
+  void shouldJoinGroupsAcrossBands() {
+    var random = new Random(7);
+    var width = 40;
+    var height = 30;
+    var cells = new byte[width * height];
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] = (byte) (random.nextInt(5) - 1);
+    }
+
+    var single = Groups.of(height, cells, new int[] { 0, width });
+    var bands = Groups.of(height, cells, new int[] { 0, 1, 7, 8, 23, width });
+
+    System.out.println(single.count() + " groups");
+    assertEquals(single.count(), bands.count());
+    for (int group = 0; group < single.count(); group++) {
+      assertEquals(single.size(group), bands.size(group));
+      assertEquals(single.color(group), bands.color(group));
+      assertEquals(single.position(group), bands.position(group));
+    }
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        assertEquals(single.label(Position.of(x, y)), bands.label(Position.of(x, y)));
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.SplittableRandom;
+import com.github.tonivade.purefun.type.Option;
+import org.junit.jupiter.api.Test;
+
+class HintsTest {
+
+  @Test
+  void shouldSuggestPlayablePositions() {
+    var matrix = new Matrix(10, 15).shuffle(42L);
+
+    for (var heuristic : Hints.Heuristic.values()) {
+      var hint = matrix.hint(heuristic);
+
+      System.out.println(heuristic + " " + hint);
+      assertTrue(matrix.adjacent(hint.getOrElseThrow()).size() > 1);
+    }
+  }
+
+  @Test
+  void shouldSuggestLargestGroup() {
+    var matrix = new Matrix(10, 15).shuffle(42L);
+    var groups = matrix.groups();
+
+    var hint = matrix.hint(Hints.Heuristic.LARGEST);
+
+    assertEquals(groups.size(groups.largest()), matrix.adjacent(hint.getOrElseThrow()).size());
+  }
+
+  @Test
+  void shouldPlayUntilGameOverFollowingHints() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var matrix = deal.matrix();
+
+    while (!matrix.gameOver()) {
+      matrix = Matrix.clickS(matrix.hint(Hints.Heuristic.LOOKAHEAD).getOrElseThrow()).runS(matrix);
+    }
+
+    System.out.println(matrix);
+    assertEquals(Option.none(), matrix.hint(Hints.Heuristic.MOBILITY));
+  }
+
+  @Test
+  void shouldSuggestFastHeuristicForLargeBoards() {
+    var small = new Matrix(10, 15).shuffle(42L);
+    var medium = new Matrix(100, 100).shuffle(42L);
+    var large = new Matrix(1000, 1000).shuffle(42L);
+
+    assertEquals(Hints.Heuristic.LOOKAHEAD, Hints.Heuristic.of(small));
+    assertEquals(Hints.Heuristic.MOBILITY, Hints.Heuristic.of(medium));
+    assertEquals(Hints.Heuristic.LARGEST, Hints.Heuristic.of(large));
+
+    var hint = large.hint(Hints.Heuristic.of(large));
+
+    System.out.println(hint);
+    assertTrue(large.adjacent(hint.getOrElseThrow()).size() > 1);
+  }
+
+  @Test
+  void shouldCacheHintsOfEqualBoards() {
+    var hints = new Hints(1);
+    var matrix = new Matrix(10, 15).shuffle(42L);
+    var other = new Matrix(10, 15).shuffle(43L);
+
+    var hint = hints.hint(matrix, Hints.Heuristic.MOBILITY);
+
+    assertSame(hint, hints.hint(new Matrix(10, 15, matrix.tiles()), Hints.Heuristic.MOBILITY));
+    hints.hint(other, Hints.Heuristic.MOBILITY);
+    assertNotSame(hint, hints.hint(matrix, Hints.Heuristic.MOBILITY));
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+  @Test
+  void shouldMapValuesToBuckets() {
+    for (long value = 0; value < 100_000; value++) {
+      var bucket = Histogram.bucket(value);
+      assertTrue(Histogram.lowest(bucket) <= value);
+      assertTrue(value - Histogram.lowest(bucket) <= value / 8);
+    }
+    assertEquals(Histogram.bucket(Long.MAX_VALUE), Histogram.bucket(Long.MAX_VALUE - 1));
+  }
+
+  @Test
+  void shouldComputePercentiles() {
+    var histogram = new Histogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+
+    System.out.println(histogram.percentile(50) + " " + histogram.percentile(99) + " " + histogram.max());
+    assertEquals(1000, histogram.count());
+    assertEquals(500.5, histogram.mean());
+    assertEquals(1000, histogram.max());
+    assertEquals(480, histogram.percentile(50));
+    assertEquals(960, histogram.percentile(99));
+    assertEquals(1, histogram.percentile(0));
+    assertThrows(IllegalArgumentException.class, () -> histogram.percentile(101));
+
+    histogram.reset();
+    assertEquals(0, histogram.count());
+    assertEquals(0, histogram.percentile(50));
+  }
+
+  @Test
+  void shouldReportMetrics() {
+    var metrics = new Metrics();
+    metrics.record(Metrics.Operation.CLEAN, 100, 64);
+    metrics.record(Metrics.Operation.CLEAN, 300, 64);
+    metrics.record(Metrics.Operation.PAINT, 1000, 0);
+
+    System.out.println(metrics.getReport());
+    var clean = Metrics.Operation.CLEAN.ordinal();
+    assertEquals(2, metrics.getCounts()[clean]);
+    assertEquals(200.0, metrics.getMeanNanos()[clean]);
+    assertEquals(128, metrics.getAllocatedBytes()[clean]);
+    assertEquals(1, metrics.getCounts()[Metrics.Operation.PAINT.ordinal()]);
+    assertEquals(24, Metrics.array(1, 8));
+    assertEquals(168, Metrics.array(150, 1));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import com.github.tonivade.purefun.type.Option;
+import org.junit.jupiter.api.Test;
+
+class HistoryTest {
+
+  @Test
+  void shouldUndoAndRedoAllMoves() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var history = new History(deal.matrix(), Long.MAX_VALUE, 4);
+    var boards = new ArrayList<Matrix>();
+    boards.add(deal.matrix());
+    for (var click : deal.solution()) {
+      boards.add(history.push(click, Matrix.clickS(click).runS(history.current())));
+    }
+
+    for (int i = boards.size() - 2; i >= 0; i--) {
+      assertEquals(Option.some(boards.get(i)), history.undo());
+    }
+    assertFalse(history.canUndo());
+    assertEquals(Option.none(), history.undo());
+
+    for (int i = 1; i < boards.size(); i++) {
+      assertEquals(Option.some(boards.get(i)), history.redo());
+    }
+    System.out.println(history.current());
+    assertTrue(history.current().isEmpty());
+    assertFalse(history.canRedo());
+  }
+
+  @Test
+  void shouldDiscardRedoAfterNewMove() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var history = new History(deal.matrix(), Long.MAX_VALUE, 4);
+    for (var click : deal.solution()) {
+      history.push(click, Matrix.clickS(click).runS(history.current()));
+    }
+
+    history.undo();
+    history.undo();
+    var click = deal.solution().get(deal.solution().size() - 2);
+    var next = history.push(click, Matrix.clickS(click).runS(history.current()));
+
+    assertFalse(history.canRedo());
+    history.undo();
+    assertEquals(Option.some(next), history.redo());
+  }
+
+  @Test
+  void shouldIgnoreClicksThatDoNotChangeTheBoard() {
+    var matrix = new Matrix(10, 15).shuffle(42L);
+    var history = new History(matrix);
+
+    history.push(new Position(20, 20), matrix);
+
+    assertFalse(history.canUndo());
+  }
+
+  @Test
+  void shouldKeepMemoryUnderBudget() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var history = new History(deal.matrix(), 1024, 4);
+    for (var click : deal.solution()) {
+      history.push(click, Matrix.clickS(click).runS(history.current()));
+      assertTrue(history.memory() <= 1024 || !history.canUndo());
+    }
+
+    var undone = 0;
+    while (history.undo().isPresent()) {
+      undone++;
+    }
+
+    System.out.println(undone + " moves undone of " + deal.solution().size());
+    assertTrue(undone > 0);
+    assertTrue(undone < deal.solution().size());
+  }
+
+  @Test
+  void shouldNotShareBoardsWithCachedGroups() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var history = new History(deal.matrix(), Long.MAX_VALUE, 1);
+    var click = deal.solution().get(0);
+    history.push(click, Matrix.clickS(click).runS(history.current())).groups();
+
+    var undone = history.undo().getOrElseThrow();
+    undone.groups();
+    history.redo();
+    var again = history.undo().getOrElseThrow();
+
+    assertNotSame(deal.matrix(), undone);
+    assertNotSame(undone, again);
+    assertEquals(undone, again);
+  }
+
+  @Test
+  void shouldUndoScore() {
+    var deal = new Deals(10, 15, 4).generate(new SplittableRandom(42L));
+    var history = new History(deal.matrix());
+    var total = 0L;
+    for (var click : deal.solution()) {
+      var result = Matrix.clickS(click).run(history.current());
+      total += result.get2().score();
+      history.push(result.get2(), result.get1());
+    }
+    System.out.println(total + " points");
+    assertEquals(total, history.score());
+    assertTrue(total >= Move.CLEAR_BONUS);
+
+    while (history.canUndo()) {
+      history.undo();
+    }
+    assertEquals(0, history.score());
+    history.redo();
+    assertEquals(Matrix.clickS(deal.solution().get(0)).run(deal.matrix()).get2().score(), history.score());
+  }
+}
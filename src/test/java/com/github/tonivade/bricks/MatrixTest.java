@@ -8,10 +8,16 @@ import static com.github.tonivade.purefun.data.Sequence.arrayOf;
 import static com.github.tonivade.purefun.data.Sequence.emptyArray;
 import static com.github.tonivade.purefun.type.Option.none;
 import static com.github.tonivade.purefun.type.Option.some;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Set;
+import com.github.tonivade.purefun.data.ImmutableArray;
 import com.github.tonivade.purefun.data.ImmutableMap;
 import org.junit.jupiter.api.Test;
 
@@ -76,6 +82,19 @@ class MatrixTest {
     assertTrue(matrix1.isEmpty());
   }
 
+  @Test
+  void shouldCleanTheSamePositionOnce() {
+    var position = new Position(1, 1);
+    var matrix0 = new Matrix(3, 3).shuffle(_ -> Color.RED);
+
+    var matrix1 = matrix0.clean(arrayOf(position, position));
+    System.out.println(matrix1);
+
+    assertEquals(8, matrix1.size());
+    assertEquals(none(), matrix1.atPosition(position));
+    assertEquals(matrix0.clean(arrayOf(position)), matrix1);
+  }
+
   @Test
   void shouldMoveAColumnOfTiles() {
     var matrix0 = new Matrix(3, 3,
@@ -180,4 +199,208 @@ class MatrixTest {
     assertEquals(arrayOf(Color.GREEN), matrix1.atRow(0).map(Tile::color));
     assertTrue(matrix1.gameOver());
   }
+
+  @Test
+  void shouldDescribeMoveAtClick() {
+    var matrix0 = new Matrix(3, 3,
+        arrayOf(new Tile(new Position(0, 2), Color.RED),
+                new Tile(new Position(1, 2), Color.RED),
+                new Tile(new Position(2, 2), Color.GREEN)));
+
+    var result = Matrix.clickS(new Position(0, 2)).run(matrix0);
+    var move = result.get2();
+    System.out.println(move);
+
+    assertEquals(some(Color.RED), move.color());
+    assertEquals(2, move.size());
+    assertEquals(2, move.removed());
+    assertEquals(2, move.columns());
+    assertFalse(move.cleared());
+    assertEquals(0, move.score());
+
+    var single = Matrix.clickS(new Position(0, 0)).run(result.get1()).get2();
+    System.out.println(single);
+
+    assertEquals(some(Color.GREEN), single.color());
+    assertEquals(1, single.size());
+    assertEquals(0, single.removed());
+    assertEquals(0, single.score());
+    assertEquals(none(), Matrix.clickS(new Position(1, 2)).run(result.get1()).get2().color());
+  }
+
+  @Test
+  void shouldScoreMoveThatClearsTheBoard() {
+    var matrix0 = new Matrix(2, 2, arrayOf(
+        new Tile(new Position(0, 0), Color.RED),
+        new Tile(new Position(0, 1), Color.RED),
+        new Tile(new Position(1, 0), Color.RED),
+        new Tile(new Position(1, 1), Color.RED)));
+
+    var result = Matrix.clickS(new Position(0, 0)).run(matrix0);
+    System.out.println(result.get2());
+
+    assertTrue(result.get1().isEmpty());
+    assertTrue(result.get2().cleared());
+    assertEquals(4 + Move.CLEAR_BONUS, result.get2().score());
+  }
+
+  @Test
+  void shouldAlignRowNumbersOfTallBoards() {
+    var matrix = new Matrix(12, 101).shuffle(42L, Color.MAX_COLORS);
+    var lines = matrix.toString().split("\n");
+    System.out.println(lines[0]);
+
+    assertEquals("   012345678901", lines[0]);
+    assertTrue(lines[1].startsWith("100"));
+    assertTrue(lines[101].startsWith("  0"));
+  }
+
+  @Test
+  void shouldExposeBricksAsView() {
+    var tiles = arrayOf(new Tile(new Position(0, 0), Color.RED),
+                        new Tile(new Position(2, 1), Color.BLUE));
+    var matrix = new Matrix(3, 3, tiles);
+
+    assertEquals(2, matrix.size());
+    assertEquals(tiles, matrix.tiles());
+    assertEquals(some(new Tile(new Position(2, 1), Color.BLUE)), matrix.bricks().get(new Position(2, 1)));
+    assertEquals(matrix, new Matrix(3, 3, matrix.bricks()));
+    assertEquals(none(), matrix.atPosition(5, 5));
+  }
+
+  @Test
+  void shouldNotAddTilesOutsideTheBoard() {
+    var matrix = new Matrix(3, 3);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> matrix.addTiles(arrayOf(new Tile(new Position(3, 0), Color.RED))));
+  }
+
+  @Test
+  void shouldFindAdjacentTilesOfSameColor() {
+    var matrix = new Matrix(3, 3,
+        arrayOf(new Tile(new Position(0, 0), Color.RED),
+                new Tile(new Position(0, 1), Color.RED),
+                new Tile(new Position(1, 1), Color.RED),
+                new Tile(new Position(2, 1), Color.BLUE),
+                new Tile(new Position(2, 2), Color.RED)));
+
+    assertEquals(Set.of(new Position(0, 0), new Position(0, 1), new Position(1, 1)),
+        matrix.adjacent(new Position(1, 1)).stream().collect(toSet()));
+    assertTrue(matrix.adjacent(new Position(2, 1)).isEmpty());
+    assertTrue(matrix.adjacent(new Position(1, 0)).isEmpty());
+  }
+
+  @Test
+  void shouldFindAdjacentTilesInLargeRegions() {
+    var matrix = new Matrix(300, 300).shuffle(p -> p.x() % 2 == 0 || p.y() == 0 ? Color.RED : Color.BLUE);
+
+    var adjacent = matrix.adjacent(new Position(0, 299));
+
+    assertEquals(150 * 300 + 150, adjacent.size());
+    assertTrue(adjacent.contains(new Position(298, 299)));
+    assertFalse(adjacent.contains(new Position(1, 1)));
+  }
+
+  @Test
+  void shouldKeepPairsUpdatedAfterEachClick() {
+    var random = new Random(42);
+    var matrix = new Matrix(10, 15).shuffle(_ -> Color.values()[random.nextInt(4)]);
+
+    while (!matrix.gameOver()) {
+      matrix = Matrix.clickS(playable(matrix).get(0)).runS(matrix);
+
+      assertEquals(new Matrix(10, 15, matrix.tiles()).pairs(), matrix.pairs());
+    }
+
+    assertTrue(playable(matrix).isEmpty());
+  }
+
+  private static ImmutableArray<Position> playable(Matrix matrix) {
+    return matrix.positions().filter(p -> matrix.adjacent(p).size() > 1);
+  }
+
+  @Test
+  void shouldCompactColumnsWithSeveralHoles() {
+    var matrix0 = new Matrix(4, 4,
+        arrayOf(new Tile(new Position(1, 1), Color.RED),
+                new Tile(new Position(1, 3), Color.BLUE),
+                new Tile(new Position(3, 2), Color.YELLOW),
+                new Tile(new Position(3, 3), Color.GREEN)));
+
+    System.out.println(matrix0);
+    var matrix1 = matrix0.fall().shift();
+    System.out.println(matrix1);
+
+    assertEquals(arrayOf(Color.RED, Color.BLUE), matrix1.atCol(0).map(Tile::color));
+    assertEquals(arrayOf(Color.YELLOW, Color.GREEN), matrix1.atCol(1).map(Tile::color));
+    assertEquals(arrayOf(Color.RED, Color.YELLOW), matrix1.atRow(0).map(Tile::color));
+    assertEquals(4, matrix1.size());
+    assertEquals(matrix1, matrix1.fall().shift());
+  }
+
+  @Test
+  void shouldShuffleFromSeed() {
+    var matrix = new Matrix(10, 15);
+
+    assertEquals(matrix.shuffle(42L), matrix.shuffle(42L));
+    assertEquals(matrix.shuffle(42L), matrix.shuffle(Color.seeded(42L)));
+    assertFalse(matrix.shuffle(42L).equals(matrix.shuffle(43L)));
+    assertTrue(matrix.shuffle(42L, 2).tiles().map(Tile::color).filter(c -> c.ordinal() >= 2).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> matrix.shuffle(42L, Color.values().length + 1));
+  }
+
+  @Test
+  void shouldReportChangedCells() {
+    var matrix = new Matrix(10, 15).shuffle(42L);
+    var groups = matrix.groups();
+    var next = Matrix.clickS(groups.position(groups.largest())).runS(matrix);
+    var changed = new ArrayList<Integer>();
+
+    next.diff(matrix, changed::add);
+
+    System.out.println(next);
+    assertFalse(changed.isEmpty());
+    for (int i = 0; i < 10 * 15; i++) {
+      var x = i / 15;
+      var y = i % 15;
+      assertEquals(changed.contains(i), matrix.cell(x, y) != next.cell(x, y));
+    }
+    assertThrows(IllegalArgumentException.class, () -> next.diff(new Matrix(15, 10), changed::add));
+  }
+
+  @Test
+  void shouldReportMovedBricks() {
+    var matrix = new Matrix(10, 15).shuffle(42L).cleanColumn(3).cleanRow(0).cleanRow(7);
+    var origin = new int[10 * 15];
+    for (int i = 0; i < origin.length; i++) {
+      origin[i] = i;
+    }
+
+    var fall = matrix.fall((from, to) -> origin[to] = from);
+    var shift = fall.shift((from, to) -> origin[to] = origin[from]);
+
+    System.out.println(shift);
+    for (int x = 0; x < 10; x++) {
+      for (int y = 0; y < 15; y++) {
+        var from = origin[shift.index(x, y)];
+        if (shift.cell(x, y) != Matrix.EMPTY) {
+          assertEquals(matrix.cell(from / 15, from % 15), shift.cell(x, y));
+        }
+      }
+    }
+  }
+
+  @Test
+  void shouldReuseTilesAndPositions() {
+    var matrix = new Matrix(10, 15).shuffle(42L);
+    var groups = matrix.groups();
+    var next = Matrix.clickS(groups.position(groups.largest())).runS(matrix);
+
+    assertSame(matrix.positions().get(17), next.positions().get(17));
+    assertSame(matrix.atPosition(9, 14).getOrElseThrow(), matrix.tiles().get(matrix.size() - 1));
+    assertSame(next.col(3).get(2), next.row(2).get(3));
+    assertSame(Position.of(3, 4), new Position(3, 3).up());
+    assertEquals(new Position(500, 500), Position.of(500, 500));
+  }
 }
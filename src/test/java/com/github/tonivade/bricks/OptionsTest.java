@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OptionsTest {
+
+  @Test
+  void shouldParseBoardSizeAndColors() {
+    var options = Options.parse(
+        "--width", "40", "--batch", "42", "--colors", "6", "--height", "30", "--history", "64", "moves.txt");
+
+    System.out.println(options);
+    assertEquals(40, options.width());
+    assertEquals(30, options.height());
+    assertEquals(6, options.colors());
+    assertEquals(64L << 20, options.history());
+    assertEquals(List.of("--batch", "42", "moves.txt"), options.arguments());
+    assertEquals(Options.DEFAULT, Options.parse());
+  }
+
+  @Test
+  void shouldRejectInvalidOptions() {
+    assertThrows(IllegalArgumentException.class, () -> Options.parse("--width"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse("--width", "x"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse("--colors", "17"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse("--height", "0"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse("--history", "0"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse("--height", "1"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse("--colors", "1"));
+    assertThrows(IllegalArgumentException.class, () -> Options.parse("--colors", "2"));
+    assertEquals(3, Options.parse("--colors", "3", "--height", "2").colors());
+  }
+
+  @Test
+  void shouldKeepLessDealsForBigBoards() {
+    assertEquals(16, Options.DEFAULT.capacity());
+    assertEquals(1, new Options(1000, 1000, 4, History.DEFAULT_BUDGET, List.of()).capacity());
+  }
+}
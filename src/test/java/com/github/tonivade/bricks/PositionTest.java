@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PositionTest {
+
+  @Test
+  void shouldBeAdjacentOnlyToNeighbors() {
+    var position = new Position(2, 3);
+
+    assertTrue(position.neighbors().stream().allMatch(position::adjacent));
+    assertFalse(position.adjacent(position));
+    assertFalse(position.adjacent(new Position(3, 4)));
+    assertFalse(position.adjacent(new Position(4, 3)));
+    assertEquals(5., position.distance(new Position(5, 7)));
+  }
+
+  @Test
+  void shouldVisitNeighborsInsideTheBoard() {
+    assertEquals(List.of(3 * 5 + 4, 3 * 5 + 2, 4 * 5 + 3, 2 * 5 + 3), neighbors(new Position(3, 3), 10, 5));
+    assertEquals(List.of(1, 5), neighbors(new Position(0, 0), 10, 5));
+    assertEquals(List.of(9 * 5 + 3, 8 * 5 + 4), neighbors(new Position(9, 4), 10, 5));
+    assertEquals(List.of(0), neighbors(new Position(-1, 0), 10, 5));
+    assertEquals(List.of(), neighbors(new Position(20, 20), 10, 5));
+  }
+
+  private static List<Integer> neighbors(Position position, int width, int height) {
+    var result = new ArrayList<Integer>();
+    position.neighbors(width, height, result::add);
+    return result;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class ReplayTest {
+
+  @Test
+  void shouldWriteAndReadReplays() throws IOException {
+    var file = Files.createTempFile("replays", ".bin");
+    var deals = new Deals(10, 15, 4);
+    var random = new SplittableRandom(42L);
+    var replays = new ArrayList<Replay>();
+    for (int i = 0; i < 20; i++) {
+      var deal = deals.generate(random);
+      replays.add(new Replay(deal.matrix(), deal.solution()));
+    }
+    replays.add(new Replay(new Matrix(7, 3).shuffle(42L).cleanColumn(2).cleanRow(0),
+        arrayOf(new Position(0, 1), new Position(6, 2))));
+
+    try (var writer = new ReplayWriter(file)) {
+      for (var replay : replays) {
+        writer.write(replay);
+      }
+    }
+
+    var read = new ArrayList<Replay>();
+    try (var reader = new ReplayReader(file, 32)) {
+      reader.forEachRemaining(read::add);
+    }
+
+    System.out.println(read.get(0).matrix());
+    System.out.println(Files.size(file) + " bytes");
+    assertEquals(replays, read);
+    assertTrue(read.get(0).play().isEmpty());
+    assertFalse(read.get(20).play().isEmpty());
+    Files.delete(file);
+  }
+
+  @Test
+  void shouldPackFullBoardsWithTwoBitsPerCell() throws IOException {
+    var file = Files.createTempFile("replays", ".bin");
+
+    try (var writer = new ReplayWriter(file)) {
+      writer.write(new Replay(new Matrix(10, 15).shuffle(42L), arrayOf()));
+    }
+
+    assertEquals(4 + 3 + (10 * 15 * 2 + 7) / 8 + 1, Files.size(file));
+    Files.delete(file);
+  }
+
+  @Test
+  void shouldNotReadOtherFiles() throws IOException {
+    var file = Files.createTempFile("replays", ".bin");
+    Files.writeString(file, "hello world");
+
+    assertThrows(IOException.class, () -> new ReplayReader(file));
+    Files.delete(file);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ScreenTest {
+
+  @Test
+  void shouldDrawFullFrameFirst() {
+    var screen = new Screen();
+    var matrix = new Matrix(3, 2,
+        arrayOf(new Tile(new Position(0, 0), Color.RED),
+                new Tile(new Position(1, 0), Color.RED),
+                new Tile(new Position(2, 0), Color.BLUE)));
+
+    var frame = screen.render(matrix);
+
+    assertEquals("\033[H\033[2J  012\n 1   \n 0\033[0;41m  \033[0;44m \033[0m\n\033[4;1H\033[J", frame);
+  }
+
+  @Test
+  void shouldDrawOnlyChangedCells() {
+    var screen = new Screen();
+    var matrix = new Matrix(3, 2,
+        arrayOf(new Tile(new Position(0, 0), Color.RED),
+                new Tile(new Position(1, 0), Color.RED),
+                new Tile(new Position(2, 0), Color.BLUE),
+                new Tile(new Position(2, 1), Color.GREEN)));
+    screen.render(matrix);
+
+    var frame = screen.render(Matrix.clickS(new Position(0, 0)).runS(matrix));
+
+    assertEquals("\033[2;3H\033[0;42m \033[2;5H\033[0m \033[3;3H\033[0;44m \033[0m  \033[4;1H\033[J", frame);
+  }
+
+  @Test
+  void shouldNotDrawCellsOfSameBoard() {
+    var screen = new Screen();
+    var matrix = new Matrix(10, 15).shuffle(42L);
+    var first = screen.render(matrix);
+
+    var second = screen.render(matrix);
+
+    assertTrue(first.startsWith("\033[H\033[2J"));
+    assertEquals("\033[17;1H\033[J", second);
+  }
+
+  @Test
+  void shouldDrawFullFrameIfSizeChanges() {
+    var screen = new Screen();
+    screen.render(new Matrix(10, 15).shuffle(42L));
+
+    var frame = screen.render(new Matrix(5, 5).shuffle(42L));
+
+    assertTrue(frame.startsWith("\033[H\033[2J"));
+    assertFalse(frame.contains("\033[17;1H"));
+  }
+}
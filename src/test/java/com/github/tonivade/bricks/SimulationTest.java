@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class SimulationTest {
+
+  @Test
+  void shouldPlayCompleteGames() {
+    var simulation = new Simulation(10, 15, 4, Policy.greedy());
+
+    var stats = simulation.run(50, 42L);
+
+    System.out.println(stats);
+
+    assertEquals(50, stats.games());
+    assertTrue(stats.moves() > 0);
+    assertTrue(stats.tiles() < 50 * 150);
+  }
+
+  @Test
+  void shouldBeReproducibleFromSeed() {
+    var simulation = new Simulation(10, 15, 3, Policy.random());
+
+    try (var sequential = new ForkJoinPool(1); var parallel = new ForkJoinPool(4)) {
+      var stats1 = simulation.run(20, 1L, sequential);
+      var stats2 = simulation.run(20, 1L, parallel);
+
+      assertEquals(stats1.wins(), stats2.wins());
+      assertEquals(stats1.moves(), stats2.moves());
+      assertEquals(stats1.tiles(), stats2.tiles());
+    }
+  }
+
+  @Test
+  void shouldNotAllowMoreColorsThanAvailable() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new Simulation(10, 15, Color.values().length + 1, Policy.greedy()));
+  }
+}
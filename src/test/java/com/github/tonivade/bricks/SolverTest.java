@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2024-2026, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.bricks;
+
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SolverTest {
+
+  @Test
+  void shouldClearSolvableBoard() {
+    var matrix = new Matrix(3, 3,
+        arrayOf(new Tile(new Position(0, 0), Color.RED),
+                new Tile(new Position(1, 0), Color.BLUE),
+                new Tile(new Position(2, 0), Color.RED),
+                new Tile(new Position(1, 1), Color.BLUE)));
+
+    var solution = new Solver().solve(matrix);
+
+    assertTrue(solution.solved());
+    assertEquals(arrayOf(new Position(1, 0), new Position(0, 0)), solution.clicks());
+  }
+
+  @Test
+  void shouldNotClearBoardWithSingleTileOfAColor() {
+    var matrix = new Matrix(3, 3,
+        arrayOf(new Tile(new Position(0, 0), Color.RED),
+                new Tile(new Position(1, 0), Color.RED),
+                new Tile(new Position(2, 0), Color.BLUE)));
+
+    var solution = new Solver().solve(matrix);
+
+    assertFalse(solution.solved());
+    assertEquals(1, solution.matrix().size());
+  }
+
+  @Test
+  void shouldReplayClicksToSolution() {
+    var random = new Random(7);
+    var matrix = new Matrix(10, 15).shuffle(_ -> Color.values()[random.nextInt(4)]);
+
+    var start = System.nanoTime();
+    var solution = new Solver().solve(matrix);
+    var elapsed = System.nanoTime() - start;
+
+    System.out.println(solution.clicks().size() + " clicks, " + solution.matrix().size() + " tiles left in " + elapsed / 1_000_000 + "ms");
+
+    var replay = matrix;
+    for (var click : solution.clicks()) {
+      replay = Matrix.clickS(click).runS(replay);
+    }
+    assertEquals(solution.matrix(), replay);
+    assertTrue(solution.matrix().size() < matrix.size());
+  }
+
+  @Test
+  void shouldTrackSameHashForSameBoard() {
+    var matrix = new Matrix(3, 3,
+        arrayOf(new Tile(new Position(0, 0), Color.RED),
+                new Tile(new Position(1, 0), Color.BLUE),
+                new Tile(new Position(2, 0), Color.BLUE)));
+
+    var clicked = Matrix.clickS(new Position(1, 0)).runS(matrix);
+
+    assertEquals(new Matrix(3, 3, arrayOf(new Tile(new Position(0, 0), Color.RED))).zobrist(), clicked.zobrist());
+  }
+}